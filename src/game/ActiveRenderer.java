@@ -0,0 +1,127 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The ActiveRenderer class draws the game on its own thread into a page-flipped Canvas,
+ * instead of waiting for Swing to repaint the panel. It draws at the display's refresh rate
+ * while something is moving, and drops to a low idle rate otherwise.
+ */
+public class ActiveRenderer extends Canvas {
+    private static final long IDLE_PERIOD_NANOS = 100_000_000L;
+    private static final int DEFAULT_REFRESH_RATE = 60;
+    private final YogiGamePanel panel;
+    private final LatencyStats frameTimes;
+    private final Camera camera = new Camera(); // Only used by the render thread
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Constructs an ActiveRenderer for a game panel.
+     *
+     * @param panel      The panel holding the game state to draw.
+     * @param frameTimes The statistics the time between frames is recorded to while something is moving.
+     */
+    public ActiveRenderer(YogiGamePanel panel, LatencyStats frameTimes) {
+        this.panel = panel;
+        this.frameTimes = frameTimes;
+        setIgnoreRepaint(true);
+        setFocusable(true);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(2);
+    }
+
+    /**
+     * Starts the render thread.
+     */
+    public void start() {
+        running = true;
+        thread = new Thread(this::renderLoop, "active-renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the render thread after its current frame.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Wakes the render thread up from its idle rate, e.g. because the game state changed.
+     */
+    public void wake() {
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Draws frames until the renderer is stopped, pacing them to the refresh rate of the display.
+     */
+    private void renderLoop() {
+        while (running && getBufferStrategy() == null) {
+            LockSupport.parkNanos(IDLE_PERIOD_NANOS); // Not displayable yet
+        }
+
+        long framePeriod = 1_000_000_000L / getRefreshRate();
+        long lastFrame = System.nanoTime();
+        boolean wasAnimating = false;
+        while (running) {
+            long now = System.nanoTime();
+            drawFrame(now);
+            if (wasAnimating) {
+                frameTimes.record(now - lastFrame);
+            }
+            lastFrame = now;
+
+            wasAnimating = panel.isAnimating(System.nanoTime());
+            long period = wasAnimating ? framePeriod : IDLE_PERIOD_NANOS;
+            long remaining = now + period - System.nanoTime();
+            if (remaining > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+    }
+
+    /**
+     * Draws a single frame into the back buffer and flips it to the screen.
+     *
+     * @param now The System.nanoTime the frame is drawn for.
+     */
+    private void drawFrame(long now) {
+        BufferStrategy strategy = getBufferStrategy();
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    panel.render(g, camera, getWidth(), getHeight(), now);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    /**
+     * Retrieves the refresh rate of the display the renderer is on.
+     *
+     * @return The refresh rate in Hz.
+     */
+    private int getRefreshRate() {
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        if (configuration == null) {
+            return DEFAULT_REFRESH_RATE;
+        }
+        int refreshRate = configuration.getDevice().getDisplayMode().getRefreshRate();
+        return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : refreshRate;
+    }
+}
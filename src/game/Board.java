@@ -0,0 +1,211 @@
+package game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The Board class is the state of the park in a single game: the shared terrain of the map,
+ * and a bit set of the baskets that have not been picked up yet.
+ * Yogi and the rangers are kept by the Player and the PatrolStore, so the terrain is never written to.
+ */
+public class Board {
+    private final Terrain terrain;
+    private final long[] baskets; // One bit per tile, set while the tile holds a basket
+    private int version; // Increased whenever a basket is picked up or put back
+
+    /**
+     * Constructs a Board at the start of a game on the given terrain.
+     *
+     * @param terrain The terrain of the map.
+     */
+    public Board(Terrain terrain) {
+        this.terrain = terrain;
+        this.baskets = terrain.copyBaskets();
+    }
+
+    /**
+     * Constructs a Board on the given terrain holding the given baskets.
+     *
+     * @param terrain The terrain of the map.
+     * @param baskets The bit set of the baskets on the board.
+     */
+    private Board(Terrain terrain, long[] baskets) {
+        this.terrain = terrain;
+        this.baskets = baskets;
+    }
+
+    /**
+     * Creates a copy of the board, e.g. to draw it on another thread while the game goes on.
+     * The terrain is shared, only the baskets are copied.
+     *
+     * @return The copy of the board.
+     */
+    public Board copy() {
+        return new Board(terrain, baskets.clone());
+    }
+
+    /**
+     * Copies the baskets on a range of rows into a copy made earlier, so the copy can be kept up to date
+     * without allocating. The baskets outside the range are left as they were.
+     *
+     * @param target   A board on the same terrain.
+     * @param firstRow The first row to copy.
+     * @param lastRow  The last row to copy.
+     */
+    public void copyTo(Board target, int firstRow, int lastRow) {
+        int cols = terrain.getCols();
+        firstRow = Math.max(0, firstRow);
+        lastRow = Math.min(terrain.getRows() - 1, lastRow);
+        if (firstRow <= lastRow) {
+            int first = firstRow * cols >> 6, last = ((lastRow + 1) * cols - 1) >> 6;
+            System.arraycopy(baskets, first, target.baskets, first, last - first + 1);
+        }
+        target.version = version;
+    }
+
+    /**
+     * Retrieves the terrain shared by every game on the map.
+     *
+     * @return The terrain of the board.
+     */
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Retrieves the number of rows on the board.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return terrain.getRows();
+    }
+
+    /**
+     * Retrieves the number of columns on the board.
+     *
+     * @return The number of columns.
+     */
+    public int getCols() {
+        return terrain.getCols();
+    }
+
+    /**
+     * Retrieves the element to draw on a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return 't' for a tree, 'm' for a mountain, 'b' for a basket, or 0 for open ground.
+     */
+    public int getElement(int x, int y) {
+        return hasBasket(x, y) ? 'b' : terrain.getElement(x, y);
+    }
+
+    /**
+     * Checks whether a tile is blocked by a tree or a mountain.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if nobody can walk on the tile, otherwise False.
+     */
+    public boolean isBlocked(int x, int y) {
+        return terrain.isBlocked(x, y);
+    }
+
+    /**
+     * Checks whether a tile still holds a basket.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if the tile holds a basket, otherwise False.
+     */
+    public boolean hasBasket(int x, int y) {
+        int cell = x * terrain.getCols() + y;
+        return (baskets[cell >> 6] & 1L << cell) != 0;
+    }
+
+    /**
+     * Picks up the basket on a tile, if there is one.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if a basket was picked up, otherwise False.
+     */
+    public boolean takeBasket(int x, int y) {
+        if (!hasBasket(x, y)) {
+            return false;
+        }
+        int cell = x * terrain.getCols() + y;
+        baskets[cell >> 6] &= ~(1L << cell);
+        version++;
+        return true;
+    }
+
+    /**
+     * Puts a basket back on a tile, e.g. while rewinding.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void putBasket(int x, int y) {
+        int cell = x * terrain.getCols() + y;
+        baskets[cell >> 6] |= 1L << cell;
+        version++;
+    }
+
+    /**
+     * Retrieves the version of the baskets, which changes whenever a basket is picked up or put back.
+     *
+     * @return The version of the baskets.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Counts the baskets left on the board.
+     *
+     * @return The number of baskets.
+     */
+    public int countBaskets() {
+        int count = 0;
+        for (long word : baskets) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Writes the baskets left on the board into a buffer. The terrain is written separately.
+     *
+     * @param buffer The buffer to write to.
+     */
+    public void write(ByteBuffer buffer) {
+        for (long word : baskets) {
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Reads the baskets written by the write method from a buffer onto a board of the given terrain.
+     *
+     * @param buffer  The buffer to read from.
+     * @param terrain The terrain of the map.
+     * @return The Board read from the buffer.
+     */
+    public static Board read(ByteBuffer buffer, Terrain terrain) {
+        Board board = new Board(terrain);
+        for (int k = 0; k < board.baskets.length; k++) {
+            board.baskets[k] = buffer.getLong();
+        }
+        return board;
+    }
+
+    /**
+     * Retrieves the number of bytes the write method writes.
+     *
+     * @return The size of the written baskets in bytes.
+     */
+    public int getStateSize() {
+        return baskets.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,93 @@
+package game;
+
+import java.awt.*;
+
+/**
+ * The BoardRenderer class draws the game board through a camera.
+ * The board is drawn tile by tile, then the patrols and Yogi are drawn on top of it,
+ * each at a point between its previous and current tile.
+ */
+public class BoardRenderer {
+    private final TileSet tileSet;
+
+    /**
+     * Constructs a BoardRenderer drawing with the given tiles.
+     *
+     * @param tileSet The images of the tiles.
+     */
+    public BoardRenderer(TileSet tileSet) {
+        this.tileSet = tileSet;
+    }
+
+    /**
+     * Draws the part of the board visible through the camera, centered on Yogi.
+     *
+     * @param g           The Graphics object to draw with.
+     * @param camera      The camera to view the board through.
+     * @param width       The width of the viewport in pixels.
+     * @param height      The height of the viewport in pixels.
+     * @param frame       The snapshot of the game state to draw.
+     * @param playerAlpha How far Yogi got from his previous to his current tile, between 0 and 1.
+     * @param patrolAlpha How far the patrols got from their previous to their current tile, between 0 and 1.
+     */
+    public void draw(Graphics g, Camera camera, int width, int height, GameSnapshot frame,
+                     double playerAlpha, double patrolAlpha) {
+        Board board = frame.getBoard();
+        int rows = board.getRows();
+        int cols = board.getCols();
+        double playerX = interpolate(frame.getPlayerPreviousX(), frame.getPlayerX(), playerAlpha);
+        double playerY = interpolate(frame.getPlayerPreviousY(), frame.getPlayerY(), playerAlpha);
+        camera.follow(playerX, playerY, width, height, rows, cols);
+
+        int tileSize = camera.getTileSize();
+        int originX = camera.getOriginX();
+        int originY = camera.getOriginY();
+        int firstRow = camera.getFirstRow(), lastRow = camera.getLastRow(rows);
+        int firstCol = camera.getFirstCol(), lastCol = camera.getLastCol(cols);
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstCol; j <= lastCol; j++) {
+                int element = frame.isStart(i, j) ? 'g' : board.getElement(i, j); // Yogi is drawn on top
+                g.drawImage(tileSet.getTile(element, tileSize), j * tileSize - originX, i * tileSize - originY, null);
+            }
+        }
+
+        // Patrols just outside the viewport may be walking into it
+        for (int k = 0; k < frame.getPatrolCount(); k++) {
+            int i = frame.getPatrolX(k), j = frame.getPatrolY(k);
+            if (i >= firstRow - 1 && i <= lastRow + 1 && j >= firstCol - 1 && j <= lastCol + 1) {
+                double x = interpolate(frame.getPatrolPreviousX(k), i, patrolAlpha);
+                double y = interpolate(frame.getPatrolPreviousY(k), j, patrolAlpha);
+                drawSprite(g, 'v', x, y, tileSize, originX, originY);
+            }
+        }
+        drawSprite(g, 'y', playerX, playerY, tileSize, originX, originY);
+    }
+
+    /**
+     * Draws the image of a map element at a fractional tile position.
+     *
+     * @param g        The Graphics object to draw with.
+     * @param element  The map element to draw.
+     * @param x        The fractional x-coordinate of the element.
+     * @param y        The fractional y-coordinate of the element.
+     * @param tileSize The tile size in pixels.
+     * @param originX  The horizontal origin of the viewport.
+     * @param originY  The vertical origin of the viewport.
+     */
+    private void drawSprite(Graphics g, int element, double x, double y, int tileSize, int originX, int originY) {
+        g.drawImage(tileSet.getTile(element, tileSize),
+                (int) Math.round(y * tileSize) - originX, (int) Math.round(x * tileSize) - originY, null);
+    }
+
+    /**
+     * Computes a point between two coordinates.
+     *
+     * @param from  The coordinate at alpha 0.
+     * @param to    The coordinate at alpha 1.
+     * @param alpha The fraction of the way from one coordinate to the other.
+     * @return The interpolated coordinate.
+     */
+    private static double interpolate(int from, int to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+}
@@ -0,0 +1,172 @@
+package game;
+
+/**
+ * The Camera class represents the visible part of the game board.
+ * It follows Yogi across boards larger than the window and manages the zoom levels.
+ */
+public class Camera {
+    private static final int[] TILE_SIZES = {20, 30, 40, 50, 70, 100};
+    private static final int DEFAULT_ZOOM = 3;
+    private int tileSize;
+    private int originX, originY; // Board pixel shown in the top-left corner of the viewport
+    private int viewWidth, viewHeight;
+
+    /**
+     * Constructs a Camera at the default zoom level.
+     */
+    public Camera() {
+        this(TILE_SIZES[DEFAULT_ZOOM]);
+    }
+
+    /**
+     * Constructs a Camera drawing tiles at the given size, e.g. for thumbnails.
+     * Zooming in or out switches to the nearest zoom level.
+     *
+     * @param tileSize The tile size in pixels.
+     */
+    public Camera(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Retrieves the size of a tile in pixels at the current zoom level.
+     *
+     * @return The tile size in pixels.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Retrieves the size of a tile in pixels at the default zoom level.
+     *
+     * @return The default tile size in pixels.
+     */
+    public static int getDefaultTileSize() {
+        return TILE_SIZES[DEFAULT_ZOOM];
+    }
+
+    /**
+     * Sets the size of a tile in pixels, e.g. to follow the zoom level of another camera.
+     *
+     * @param tileSize The tile size in pixels.
+     */
+    public void setTileSize(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Switches to the next larger zoom level, if there is one.
+     */
+    public void zoomIn() {
+        for (int size : TILE_SIZES) {
+            if (size > tileSize) {
+                tileSize = size;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Switches to the next smaller zoom level, if there is one.
+     */
+    public void zoomOut() {
+        for (int i = TILE_SIZES.length - 1; i >= 0; i--) {
+            if (TILE_SIZES[i] < tileSize) {
+                tileSize = TILE_SIZES[i];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Centers the viewport on the given tile, keeping it within the board.
+     * A board smaller than the viewport is centered in it instead.
+     *
+     * @param row        The row of the tile to follow, fractional while moving between tiles.
+     * @param col        The column of the tile to follow, fractional while moving between tiles.
+     * @param viewWidth  The width of the viewport in pixels.
+     * @param viewHeight The height of the viewport in pixels.
+     * @param rows       The number of rows on the board.
+     * @param cols       The number of columns on the board.
+     */
+    public void follow(double row, double col, int viewWidth, int viewHeight, int rows, int cols) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        int centerX = (int) (col * tileSize) + tileSize / 2;
+        int centerY = (int) (row * tileSize) + tileSize / 2;
+        this.originX = clampOrigin(centerX - viewWidth / 2, viewWidth, cols * tileSize);
+        this.originY = clampOrigin(centerY - viewHeight / 2, viewHeight, rows * tileSize);
+    }
+
+    /**
+     * Keeps the origin on one axis within the board, or centers the board if it is smaller than the viewport.
+     *
+     * @param origin     The desired origin on the axis.
+     * @param viewSize   The size of the viewport on the axis.
+     * @param boardSize  The size of the board on the axis.
+     * @return The adjusted origin.
+     */
+    private static int clampOrigin(int origin, int viewSize, int boardSize) {
+        if (boardSize <= viewSize) {
+            return -(viewSize - boardSize) / 2;
+        }
+        return Math.max(0, Math.min(origin, boardSize - viewSize));
+    }
+
+    /**
+     * Retrieves the board x-coordinate in pixels shown at the left edge of the viewport.
+     *
+     * @return The horizontal origin of the viewport.
+     */
+    public int getOriginX() {
+        return originX;
+    }
+
+    /**
+     * Retrieves the board y-coordinate in pixels shown at the top edge of the viewport.
+     *
+     * @return The vertical origin of the viewport.
+     */
+    public int getOriginY() {
+        return originY;
+    }
+
+    /**
+     * Retrieves the first row intersecting the viewport.
+     *
+     * @return The index of the first visible row.
+     */
+    public int getFirstRow() {
+        return Math.max(0, Math.floorDiv(originY, getTileSize()));
+    }
+
+    /**
+     * Retrieves the last row intersecting the viewport.
+     *
+     * @param rows The number of rows on the board.
+     * @return The index of the last visible row.
+     */
+    public int getLastRow(int rows) {
+        return Math.min(rows - 1, Math.floorDiv(originY + viewHeight - 1, getTileSize()));
+    }
+
+    /**
+     * Retrieves the first column intersecting the viewport.
+     *
+     * @return The index of the first visible column.
+     */
+    public int getFirstCol() {
+        return Math.max(0, Math.floorDiv(originX, getTileSize()));
+    }
+
+    /**
+     * Retrieves the last column intersecting the viewport.
+     *
+     * @param cols The number of columns on the board.
+     * @return The index of the last visible column.
+     */
+    public int getLastCol(int cols) {
+        return Math.min(cols - 1, Math.floorDiv(originX + viewWidth - 1, getTileSize()));
+    }
+}
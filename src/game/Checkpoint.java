@@ -0,0 +1,195 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * The Checkpoint class saves the state of a running game to disk, so it can be resumed after the window
+ * is closed or the game crashes. The state is captured on the event dispatch thread into a preallocated
+ * binary buffer, and written to disk on a background thread.
+ * <p>
+ * The file starts with a header holding the length and a CRC32 checksum of the payload, which is the elapsed time
+ * followed by the game state, so a truncated or corrupted file is ignored instead of being resumed.
+ */
+public class Checkpoint {
+    private static final Path FILE = Path.of("save", "checkpoint.bin");
+    private static final Path TEMP_FILE = Path.of("save", "checkpoint.tmp");
+    private static final int MAGIC = 0x594F4749; // "YOGI"
+    private static final int VERSION = 4;
+    private static final int HEADER_SIZE = 16;
+    private static final int CLOSE_TIMEOUT_SECONDS = 5;
+    private final ExecutorService writer;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+
+    /**
+     * Constructs a Checkpoint with its own writer thread.
+     */
+    public Checkpoint() {
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Captures the state of a game and writes it to disk in the background.
+     * The capture is skipped if the previous checkpoint is still being written.
+     *
+     * @param panel         The panel holding the game state.
+     * @param elapsedMillis The time spent in the game so far, in milliseconds.
+     */
+    public void save(YogiGamePanel panel, long elapsedMillis) {
+        if (!writing.compareAndSet(false, true)) {
+            return;
+        }
+
+        int size = getSize(panel);
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size) * 2);
+        }
+        ByteBuffer captured = capture(panel, elapsedMillis, buffer);
+        writer.execute(() -> {
+            try {
+                write(captured);
+            } finally {
+                writing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Captures the final state of a game, e.g. because the window is closed, and writes it to disk
+     * after the checkpoint being written, if there is one. Unlike save, it is never skipped.
+     * The state is captured into a buffer of its own, as the preallocated one may still be in use.
+     *
+     * @param panel         The panel holding the game state.
+     * @param elapsedMillis The time spent in the game so far, in milliseconds.
+     */
+    public void saveFinal(YogiGamePanel panel, long elapsedMillis) {
+        ByteBuffer captured = capture(panel, elapsedMillis, ByteBuffer.allocate(getSize(panel)));
+        writer.execute(() -> write(captured));
+    }
+
+    /**
+     * Retrieves the number of bytes a checkpoint of a game takes.
+     *
+     * @param panel The panel holding the game state.
+     * @return The size of the checkpoint in bytes.
+     */
+    private static int getSize(YogiGamePanel panel) {
+        return HEADER_SIZE + Long.BYTES + panel.getStateSize();
+    }
+
+    /**
+     * Writes the header, the elapsed time and the game state into a buffer, ready to be written to disk.
+     *
+     * @param panel         The panel holding the game state.
+     * @param elapsedMillis The time spent in the game so far, in milliseconds.
+     * @param buffer        The buffer to write to, with room for the whole checkpoint.
+     * @return The buffer, flipped for writing.
+     */
+    private static ByteBuffer capture(YogiGamePanel panel, long elapsedMillis, ByteBuffer buffer) {
+        buffer.clear();
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(0); // Length and checksum are filled in below
+        buffer.putLong(elapsedMillis);
+        panel.writeState(buffer);
+        buffer.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.limit() - HEADER_SIZE));
+        buffer.putInt(8, buffer.limit() - HEADER_SIZE);
+        buffer.putInt(12, (int) crc.getValue());
+        return buffer;
+    }
+
+    /**
+     * Writes a captured checkpoint to disk. Called on the writer thread.
+     *
+     * @param captured The captured checkpoint.
+     */
+    private static void write(ByteBuffer captured) {
+        try {
+            Files.createDirectories(FILE.getParent());
+            try (FileChannel channel = FileChannel.open(TEMP_FILE, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (captured.hasRemaining()) {
+                    channel.write(captured);
+                }
+                channel.force(false);
+            }
+            // A crash while writing leaves the previous checkpoint intact
+            Files.move(TEMP_FILE, FILE, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the saved checkpoint once the checkpoints being written are done, e.g. because the game is over.
+     */
+    public void delete() {
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(FILE);
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Waits until the pending checkpoints are written and stops the writer thread.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the saved checkpoint, if there is a valid one.
+     * A checkpoint is valid if its header matches this version and its payload has the length and checksum
+     * stored in the header. The returned buffer is positioned at the elapsed time, which is followed by the game state.
+     *
+     * @return The saved checkpoint, or null if there is none.
+     */
+    public static ByteBuffer load() {
+        if (!Files.exists(FILE)) {
+            return null;
+        }
+        try {
+            ByteBuffer saved = ByteBuffer.wrap(Files.readAllBytes(FILE));
+            if (saved.remaining() < HEADER_SIZE || saved.getInt() != MAGIC || saved.getInt() != VERSION) {
+                System.err.println("Ignoring invalid checkpoint " + FILE);
+                return null;
+            }
+            int length = saved.getInt();
+            int checksum = saved.getInt();
+            CRC32 crc = new CRC32();
+            crc.update(saved.duplicate());
+            if (length != saved.remaining() || length < Long.BYTES || (int) crc.getValue() != checksum) {
+                System.err.println("Ignoring corrupted checkpoint " + FILE);
+                return null;
+            }
+            return saved;
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return null;
+        }
+    }
+}
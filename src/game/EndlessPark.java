@@ -0,0 +1,329 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The EndlessPark class extends the park in every direction as Yogi walks towards its edges.
+ * The park is made of square chunks generated from a seed and their coordinates, so a chunk always
+ * looks the same when it is generated again. The board holds a window of three by three chunks around Yogi;
+ * when he walks into a neighbouring chunk the window is shifted, so the board, the patrols and the tick
+ * cost stay the same size however far he travels.
+ * <p>
+ * Chunks leaving the window are kept with their collected baskets and patrols in a cache of recently
+ * visited chunks. Chunks dropped from the cache are generated again when Yogi comes back.
+ * The chunks around the window are generated ahead of Yogi on a background thread.
+ */
+public class EndlessPark {
+    public static final int CHUNK_SIZE = 15;
+    private static final int WINDOW_CHUNKS = 3;
+    private static final int MAP_SIZE = CHUNK_SIZE * WINDOW_CHUNKS;
+    private static final int CACHED_CHUNKS = 64;
+    private final long seed;
+    private int centerX, centerY; // Coordinates of the chunk in the middle of the window
+    private final Map<Long, int[][]> cache = new LinkedHashMap<>(CACHED_CHUNKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[][]> eldest) {
+            return size() > CACHED_CHUNKS;
+        }
+    };
+    private final Map<Long, Future<int[][]>> pending = new HashMap<>();
+    private final ExecutorService generator;
+    private final int[][] window = new int[MAP_SIZE][MAP_SIZE]; // Codes of the window while it is built
+
+    /**
+     * Constructs an EndlessPark with the window centered on the chunk at the origin.
+     *
+     * @param seed The seed the chunks are generated from.
+     */
+    public EndlessPark(long seed) {
+        this(seed, 0, 0);
+    }
+
+    /**
+     * Constructs an EndlessPark with the window centered on the given chunk.
+     *
+     * @param seed    The seed the chunks are generated from.
+     * @param centerX The x-coordinate of the chunk in the middle of the window.
+     * @param centerY The y-coordinate of the chunk in the middle of the window.
+     */
+    private EndlessPark(long seed, int centerX, int centerY) {
+        this.seed = seed;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        generator = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "chunk-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the board of the window, with Yogi starting in the middle of it.
+     *
+     * @return The board representing the game grid.
+     */
+    public Board createBoard() {
+        for (int i = 0; i < WINDOW_CHUNKS; i++) {
+            for (int j = 0; j < WINDOW_CHUNKS; j++) {
+                loadChunk(window, i, j);
+            }
+        }
+        YogiGameMap.placeStart(window, MAP_SIZE / 2, MAP_SIZE / 2);
+        pregenerate();
+        return new Board(Terrain.fromMap(window));
+    }
+
+    /**
+     * Shifts the window if Yogi walked out of the chunk in its middle.
+     * The chunks leaving the window are cached, the chunks entering it are loaded,
+     * and Yogi and the patrols are moved along with the board.
+     * As the terrain of a window is never changed, the shifted window gets a new board.
+     *
+     * @param board   The board representing the game grid.
+     * @param player  The player walking through the park.
+     * @param patrols The patrols on the board.
+     * @return The board of the shifted window, or null if Yogi is still in the middle chunk.
+     */
+    public Board follow(Board board, Player player, PatrolStore patrols) {
+        int dx = player.getX() / CHUNK_SIZE - 1;
+        int dy = player.getY() / CHUNK_SIZE - 1;
+        if (dx == 0 && dy == 0) {
+            return null;
+        }
+
+        for (int i = 0; i < MAP_SIZE; i++) {
+            for (int j = 0; j < MAP_SIZE; j++) {
+                window[i][j] = board.getElement(i, j);
+            }
+        }
+        if (dx != 0) {
+            shiftRows(window, dx, patrols);
+            patrols.shift(-dx * CHUNK_SIZE, 0);
+            player.shift(-dx * CHUNK_SIZE, 0);
+        }
+        if (dy != 0) {
+            shiftCols(window, dy, patrols);
+            patrols.shift(0, -dy * CHUNK_SIZE);
+            player.shift(0, -dy * CHUNK_SIZE);
+        }
+
+        // The rangers of the chunks that entered the window are the starting rangers of the new terrain
+        Terrain terrain = Terrain.fromMap(window);
+        for (int k = 0; k < terrain.getPatrolCount(); k++) {
+            patrols.add(terrain.getPatrolX(k), terrain.getPatrolY(k), terrain.isPatrolVertical(k));
+        }
+        pregenerate();
+        return new Board(terrain);
+    }
+
+    /**
+     * Shifts the window by one chunk up or down.
+     * The rows of the leaving chunks are reused for the entering ones.
+     *
+     * @param map     The codes of the window.
+     * @param dx      The direction Yogi left the middle chunk in, -1 for up and 1 for down.
+     * @param patrols The patrols on the map.
+     */
+    private void shiftRows(int[][] map, int dx, PatrolStore patrols) {
+        int leaving = dx > 0 ? 0 : WINDOW_CHUNKS - 1;
+        for (int j = 0; j < WINDOW_CHUNKS; j++) {
+            saveChunk(map, leaving, j, patrols);
+        }
+
+        int[][] rows = new int[CHUNK_SIZE][];
+        System.arraycopy(map, leaving * CHUNK_SIZE, rows, 0, CHUNK_SIZE);
+        if (dx > 0) {
+            System.arraycopy(map, CHUNK_SIZE, map, 0, MAP_SIZE - CHUNK_SIZE);
+            System.arraycopy(rows, 0, map, MAP_SIZE - CHUNK_SIZE, CHUNK_SIZE);
+        } else {
+            System.arraycopy(map, 0, map, CHUNK_SIZE, MAP_SIZE - CHUNK_SIZE);
+            System.arraycopy(rows, 0, map, 0, CHUNK_SIZE);
+        }
+
+        centerX += dx;
+        for (int j = 0; j < WINDOW_CHUNKS; j++) {
+            loadChunk(map, WINDOW_CHUNKS - 1 - leaving, j);
+        }
+    }
+
+    /**
+     * Shifts the window by one chunk left or right.
+     *
+     * @param map     The codes of the window.
+     * @param dy      The direction Yogi left the middle chunk in, -1 for left and 1 for right.
+     * @param patrols The patrols on the map.
+     */
+    private void shiftCols(int[][] map, int dy, PatrolStore patrols) {
+        int leaving = dy > 0 ? 0 : WINDOW_CHUNKS - 1;
+        for (int i = 0; i < WINDOW_CHUNKS; i++) {
+            saveChunk(map, i, leaving, patrols);
+        }
+
+        for (int[] row : map) {
+            if (dy > 0) {
+                System.arraycopy(row, CHUNK_SIZE, row, 0, MAP_SIZE - CHUNK_SIZE);
+            } else {
+                System.arraycopy(row, 0, row, CHUNK_SIZE, MAP_SIZE - CHUNK_SIZE);
+            }
+        }
+
+        centerY += dy;
+        for (int i = 0; i < WINDOW_CHUNKS; i++) {
+            loadChunk(map, i, WINDOW_CHUNKS - 1 - leaving);
+        }
+    }
+
+    /**
+     * Copies a chunk of the window into the cache, with its patrols written back as 'v' and 'h' codes.
+     *
+     * @param map     The codes of the window.
+     * @param i       The row of the chunk in the window.
+     * @param j       The column of the chunk in the window.
+     * @param patrols The patrols on the map.
+     */
+    private void saveChunk(int[][] map, int i, int j, PatrolStore patrols) {
+        int[][] chunk = new int[CHUNK_SIZE][CHUNK_SIZE];
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            int x = i * CHUNK_SIZE + r;
+            for (int c = 0; c < CHUNK_SIZE; c++) {
+                int y = j * CHUNK_SIZE + c;
+                int patrol = patrols.getPatrolAt(x, y);
+                if (patrol >= 0) {
+                    chunk[r][c] = patrols.isVertical(patrol) ? 'v' : 'h';
+                } else {
+                    chunk[r][c] = map[x][y];
+                }
+            }
+        }
+        cache.put(key(centerX + i - 1, centerY + j - 1), chunk);
+    }
+
+    /**
+     * Copies a chunk into the window, taking it from the cache, from the chunks generated ahead
+     * or generating it right away, in that order.
+     *
+     * @param map The codes of the window.
+     * @param i   The row of the chunk in the window.
+     * @param j   The column of the chunk in the window.
+     */
+    private void loadChunk(int[][] map, int i, int j) {
+        int chunkX = centerX + i - 1, chunkY = centerY + j - 1;
+        long key = key(chunkX, chunkY);
+        int[][] chunk = cache.remove(key);
+        if (chunk == null) {
+            Future<int[][]> generated = pending.remove(key);
+            if (generated != null) {
+                try {
+                    chunk = generated.get();
+                } catch (ExecutionException e) {
+                    System.err.println(e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (chunk == null) {
+            chunk = generate(chunkX, chunkY);
+        }
+
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            System.arraycopy(chunk[r], 0, map[i * CHUNK_SIZE + r], j * CHUNK_SIZE, CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Generates the ring of chunks around the window in the background, so the next shift finds them ready.
+     * Chunks generated for an earlier window that are no longer next to it are dropped.
+     */
+    private void pregenerate() {
+        Iterator<Map.Entry<Long, Future<int[][]>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Future<int[][]>> entry = iterator.next();
+            long key = entry.getKey();
+            if (Math.abs((int) (key >> 32) - centerX) > 2 || Math.abs((int) key - centerY) > 2) {
+                entry.getValue().cancel(false);
+                iterator.remove();
+            }
+        }
+
+        for (int chunkX = centerX - 2; chunkX <= centerX + 2; chunkX++) {
+            for (int chunkY = centerY - 2; chunkY <= centerY + 2; chunkY++) {
+                boolean inWindow = Math.abs(chunkX - centerX) <= 1 && Math.abs(chunkY - centerY) <= 1;
+                long key = key(chunkX, chunkY);
+                if (!inWindow && !cache.containsKey(key) && !pending.containsKey(key)) {
+                    int x = chunkX, y = chunkY;
+                    pending.put(key, generator.submit(() -> generate(x, y)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates a chunk from the seed of the park and the coordinates of the chunk.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkY The y-coordinate of the chunk.
+     * @return The generated chunk.
+     */
+    private int[][] generate(int chunkX, int chunkY) {
+        long chunkSeed = seed ^ chunkX * 0x9E3779B97F4A7C15L ^ chunkY * 0xC2B2AE3D27D4EB4FL;
+        return YogiGameMap.generateChunk(chunkSeed, CHUNK_SIZE, CHUNK_SIZE);
+    }
+
+    /**
+     * Packs the coordinates of a chunk into a cache key.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkY The y-coordinate of the chunk.
+     * @return The key of the chunk.
+     */
+    private static long key(int chunkX, int chunkY) {
+        return (long) chunkX << 32 | (chunkY & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Stops generating chunks ahead of Yogi.
+     */
+    public void close() {
+        generator.shutdownNow();
+    }
+
+    /**
+     * Writes the seed and the position of the window into a buffer.
+     * Chunks outside the window are generated again after the park is read back.
+     *
+     * @param buffer The buffer to write to.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putLong(seed).putInt(centerX).putInt(centerY);
+    }
+
+    /**
+     * Reads a park written by the write method from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @return The EndlessPark read from the buffer.
+     */
+    public static EndlessPark read(ByteBuffer buffer) {
+        EndlessPark park = new EndlessPark(buffer.getLong(), buffer.getInt(), buffer.getInt());
+        park.pregenerate();
+        return park;
+    }
+
+    /**
+     * Retrieves the number of bytes the write method writes.
+     *
+     * @return The size of a written park in bytes.
+     */
+    public static int getStateSize() {
+        return Long.BYTES + 2 * Integer.BYTES;
+    }
+}
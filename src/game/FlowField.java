@@ -0,0 +1,104 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * The FlowField class holds the walking distance from Yogi to every tile of the board.
+ * It is shared by all chasing patrols, so each patrol can pick its next step by looking at its neighbours only.
+ */
+public class FlowField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    static final int[] STEP_X = {-1, 1, 0, 0};
+    static final int[] STEP_Y = {0, 0, -1, 1};
+    private int rows, cols;
+    private int[] distance = new int[0];
+    private int[] queue = new int[0];
+    private int sourceX = -1, sourceY = -1;
+    private Board board; // Board the distances were computed on
+    private int boardVersion;
+
+    /**
+     * Brings the field up to date with Yogi's position.
+     * The distances are only recomputed if Yogi moved, the board was replaced, or a basket was picked up
+     * or put back since the last update, as baskets are the only tiles whose walkability changes.
+     *
+     * @param board   The board representing the game grid.
+     * @param sourceX The x-coordinate of Yogi.
+     * @param sourceY The y-coordinate of Yogi.
+     */
+    public void update(Board board, int sourceX, int sourceY) {
+        if (sourceX == this.sourceX && sourceY == this.sourceY
+                && board == this.board && board.getVersion() == boardVersion) {
+            return;
+        }
+        this.sourceX = sourceX;
+        this.sourceY = sourceY;
+        this.board = board;
+        this.boardVersion = board.getVersion();
+        compute(board);
+    }
+
+    /**
+     * Retrieves the walking distance from a tile to Yogi.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The number of steps to Yogi, or UNREACHABLE if Yogi cannot be reached from the tile.
+     */
+    public int getDistance(int x, int y) {
+        if (x < 0 || x >= rows || y < 0 || y >= cols) {
+            return UNREACHABLE;
+        }
+        return distance[x * cols + y];
+    }
+
+    /**
+     * Checks whether a patrol is allowed to walk on a tile.
+     *
+     * @param board The board representing the game grid.
+     * @param x     The x-coordinate of the tile.
+     * @param y     The y-coordinate of the tile.
+     * @return True if the tile is walkable, otherwise False.
+     */
+    public static boolean isWalkable(Board board, int x, int y) {
+        return !board.isBlocked(x, y) && !board.hasBasket(x, y);
+    }
+
+    /**
+     * Computes the distances with a breadth-first search from Yogi's tile over the walkable tiles.
+     * The buffers are reused as long as the board size does not change.
+     *
+     * @param board The board representing the game grid.
+     */
+    private void compute(Board board) {
+        rows = board.getRows();
+        cols = board.getCols();
+        if (distance.length != rows * cols) {
+            distance = new int[rows * cols];
+            queue = new int[rows * cols];
+        }
+        Arrays.fill(distance, UNREACHABLE);
+
+        int head = 0, tail = 0;
+        distance[sourceX * cols + sourceY] = 0;
+        queue[tail++] = sourceX * cols + sourceY;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell / cols;
+            int y = cell % cols;
+            int next = distance[cell] + 1;
+            for (int k = 0; k < STEP_X.length; k++) {
+                int nx = x + STEP_X[k];
+                int ny = y + STEP_Y[k];
+                if (nx < 0 || nx >= rows || ny < 0 || ny >= cols) {
+                    continue;
+                }
+                int neighbour = nx * cols + ny;
+                if (distance[neighbour] == UNREACHABLE && isWalkable(board, nx, ny)) {
+                    distance[neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+}
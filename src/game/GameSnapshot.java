@@ -0,0 +1,246 @@
+package game;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The GameSnapshot class is a copy of everything needed to draw a frame of the game:
+ * the baskets and the patrols around the viewport, the position of Yogi, the zoom level
+ * and the times of the last steps. A snapshot is drawn on another thread while the event dispatch thread
+ * goes on changing the game state, so it is only taken again once nobody is drawing it anymore.
+ * Its buffers are kept from one take to the next, so taking a snapshot does not allocate.
+ */
+public final class GameSnapshot {
+    private static final int MARGIN = 2; // Tiles around the viewport: one for a camera following Yogi between tiles, one for patrols walking in
+    private final AtomicInteger readers = new AtomicInteger(); // Number of threads drawing the snapshot
+    private Board board;
+    private int playerX, playerY;
+    private int playerPreviousX, playerPreviousY;
+    private int startX, startY;
+    private int patrolCount;
+    private int[] patrolX = new int[16], patrolY = new int[16];
+    private int[] patrolPreviousX = new int[16], patrolPreviousY = new int[16];
+    private int tileSize;
+    private long lastPlayerStep, lastPatrolStep;
+
+    /**
+     * Copies the current game state into the snapshot. Only the baskets on the rows around the viewport of the camera
+     * and the patrols standing around it are copied; the patrols are looked up tile by tile in their occupancy index,
+     * so the cost depends on the size of the viewport, not on the size of the board or the number of patrols.
+     *
+     * @param board          The board representing the game grid.
+     * @param player         The player to draw.
+     * @param patrols        The patrols to draw.
+     * @param camera         The camera following Yogi, at the current zoom level.
+     * @param lastPlayerStep The System.nanoTime of Yogi's last step.
+     * @param lastPatrolStep The System.nanoTime of the patrols' last step.
+     */
+    public void take(Board board, Player player, PatrolStore patrols, Camera camera,
+                     long lastPlayerStep, long lastPatrolStep) {
+        int firstRow = camera.getFirstRow() - MARGIN, lastRow = camera.getLastRow(board.getRows()) + MARGIN;
+        if (this.board == null || this.board.getTerrain() != board.getTerrain()) {
+            this.board = board.copy();
+        } else {
+            board.copyTo(this.board, firstRow, lastRow);
+        }
+        this.playerX = player.getX();
+        this.playerY = player.getY();
+        this.playerPreviousX = player.getPreviousX();
+        this.playerPreviousY = player.getPreviousY();
+        this.startX = player.getStartX();
+        this.startY = player.getStartY();
+
+        int lastCol = camera.getLastCol(board.getCols()) + MARGIN;
+        patrolCount = 0;
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = camera.getFirstCol() - MARGIN; j <= lastCol; j++) {
+                int k = patrols.getPatrolAt(i, j);
+                if (k >= 0) {
+                    addPatrol(i, j, patrols.getPreviousX(k), patrols.getPreviousY(k));
+                }
+            }
+        }
+
+        this.tileSize = camera.getTileSize();
+        this.lastPlayerStep = lastPlayerStep;
+        this.lastPatrolStep = lastPatrolStep;
+    }
+
+    /**
+     * Adds a patrol to the snapshot, growing its buffers if needed.
+     *
+     * @param x         The x-coordinate of the patrol.
+     * @param y         The y-coordinate of the patrol.
+     * @param previousX The x-coordinate of the patrol before its last step.
+     * @param previousY The y-coordinate of the patrol before its last step.
+     */
+    private void addPatrol(int x, int y, int previousX, int previousY) {
+        if (patrolCount == patrolX.length) {
+            int capacity = patrolCount * 2;
+            patrolX = Arrays.copyOf(patrolX, capacity);
+            patrolY = Arrays.copyOf(patrolY, capacity);
+            patrolPreviousX = Arrays.copyOf(patrolPreviousX, capacity);
+            patrolPreviousY = Arrays.copyOf(patrolPreviousY, capacity);
+        }
+        patrolX[patrolCount] = x;
+        patrolY[patrolCount] = y;
+        patrolPreviousX[patrolCount] = previousX;
+        patrolPreviousY[patrolCount] = previousY;
+        patrolCount++;
+    }
+
+    /**
+     * Marks the snapshot as being drawn, so it is not taken again until it is released.
+     */
+    public void acquire() {
+        readers.incrementAndGet();
+    }
+
+    /**
+     * Marks the snapshot as no longer drawn by the calling thread.
+     */
+    public void release() {
+        readers.decrementAndGet();
+    }
+
+    /**
+     * Checks whether a thread is drawing the snapshot.
+     *
+     * @return True if the snapshot is acquired, otherwise False.
+     */
+    public boolean isDrawn() {
+        return readers.get() > 0;
+    }
+
+    /**
+     * Retrieves the copy of the board.
+     *
+     * @return The board representing the game grid.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Retrieves the x-coordinate of Yogi.
+     *
+     * @return The x-coordinate of Yogi.
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Retrieves the y-coordinate of Yogi.
+     *
+     * @return The y-coordinate of Yogi.
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Retrieves the x-coordinate of Yogi before his last step.
+     *
+     * @return The previous x-coordinate of Yogi.
+     */
+    public int getPlayerPreviousX() {
+        return playerPreviousX;
+    }
+
+    /**
+     * Retrieves the y-coordinate of Yogi before his last step.
+     *
+     * @return The previous y-coordinate of Yogi.
+     */
+    public int getPlayerPreviousY() {
+        return playerPreviousY;
+    }
+
+    /**
+     * Checks whether a tile is Yogi's starting position, where the park's gate is.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if the tile is the starting position, otherwise False.
+     */
+    public boolean isStart(int x, int y) {
+        return x == startX && y == startY;
+    }
+
+    /**
+     * Retrieves the number of patrols in the snapshot.
+     *
+     * @return The number of patrols around the viewport.
+     */
+    public int getPatrolCount() {
+        return patrolCount;
+    }
+
+    /**
+     * Retrieves the x-coordinate of a patrol.
+     *
+     * @param i The index of the patrol in the snapshot.
+     * @return The x-coordinate of the patrol.
+     */
+    public int getPatrolX(int i) {
+        return patrolX[i];
+    }
+
+    /**
+     * Retrieves the y-coordinate of a patrol.
+     *
+     * @param i The index of the patrol in the snapshot.
+     * @return The y-coordinate of the patrol.
+     */
+    public int getPatrolY(int i) {
+        return patrolY[i];
+    }
+
+    /**
+     * Retrieves the x-coordinate of a patrol before its last step.
+     *
+     * @param i The index of the patrol in the snapshot.
+     * @return The previous x-coordinate of the patrol.
+     */
+    public int getPatrolPreviousX(int i) {
+        return patrolPreviousX[i];
+    }
+
+    /**
+     * Retrieves the y-coordinate of a patrol before its last step.
+     *
+     * @param i The index of the patrol in the snapshot.
+     * @return The previous y-coordinate of the patrol.
+     */
+    public int getPatrolPreviousY(int i) {
+        return patrolPreviousY[i];
+    }
+
+    /**
+     * Retrieves the tile size at the zoom level the snapshot was taken at.
+     *
+     * @return The tile size in pixels.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Retrieves the time Yogi's last step started at.
+     *
+     * @return The System.nanoTime of Yogi's last step.
+     */
+    public long getLastPlayerStep() {
+        return lastPlayerStep;
+    }
+
+    /**
+     * Retrieves the time the patrols' last step started at.
+     *
+     * @return The System.nanoTime of the patrols' last step.
+     */
+    public long getLastPatrolStep() {
+        return lastPatrolStep;
+    }
+}
@@ -0,0 +1,83 @@
+package game;
+
+/**
+ * The InputQueue class holds key presses until the next simulation tick applies them.
+ * Keys are queued by the key listener and applied by the tick timer, both on the event dispatch thread,
+ * so the queue does not move presses across threads: it only moves them to tick boundaries,
+ * keeping their order and the time they were queued at, so the latency until they are applied can be measured.
+ * <p>
+ * When the queue is full, a press of the same key as the newest queued one is merged into it and applied
+ * as many times as it was pressed. Other presses are dropped and counted.
+ */
+public class InputQueue {
+    private static final int CAPACITY = 64; // Must be a power of two
+    private final int[] keyCodes = new int[CAPACITY];
+    private final long[] timestamps = new long[CAPACITY];
+    private final int[] repeats = new int[CAPACITY]; // Presses merged into each queued press
+    private long head; // Sequence of the next key press to apply
+    private long tail; // Sequence of the next key press to queue
+    private long dropped; // Number of presses dropped because the queue was full
+
+    /**
+     * Receives the key presses taken from the queue.
+     */
+    public interface InputHandler {
+        /**
+         * Applies a key press.
+         *
+         * @param keyCode   The code of the pressed key.
+         * @param timestamp The System.nanoTime at which the key press was queued.
+         */
+        void apply(int keyCode, long timestamp);
+    }
+
+    /**
+     * Queues a key press. If the queue is full, the press is merged into the newest queued press of the same key,
+     * whose timestamp is kept, or dropped otherwise.
+     *
+     * @param keyCode   The code of the pressed key.
+     * @param timestamp The System.nanoTime at which the key was pressed.
+     * @return True if the key press was queued or merged, false if it was dropped.
+     */
+    public boolean offer(int keyCode, long timestamp) {
+        if (tail - head == CAPACITY) {
+            int newest = (int) ((tail - 1) & (CAPACITY - 1));
+            if (keyCodes[newest] != keyCode) {
+                dropped++;
+                return false;
+            }
+            repeats[newest]++;
+            return true;
+        }
+        int slot = (int) (tail & (CAPACITY - 1));
+        keyCodes[slot] = keyCode;
+        timestamps[slot] = timestamp;
+        repeats[slot] = 0;
+        tail++;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of key presses dropped because the queue was full.
+     *
+     * @return The number of dropped key presses.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Applies all queued key presses in the order they were pressed, merged presses once for every press.
+     *
+     * @param handler The handler applying the key presses.
+     */
+    public void drain(InputHandler handler) {
+        while (head < tail) {
+            int slot = (int) (head & (CAPACITY - 1));
+            head++;
+            for (int k = repeats[slot]; k >= 0; k--) {
+                handler.apply(keyCodes[slot], timestamps[slot]);
+            }
+        }
+    }
+}
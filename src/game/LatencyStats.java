@@ -0,0 +1,59 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * The LatencyStats class keeps the most recent latency samples and reports their percentiles.
+ * It can be shared between the thread recording the samples and the thread reporting them.
+ */
+public class LatencyStats {
+    private final long[] samples;
+    private long count;
+
+    /**
+     * Constructs an empty LatencyStats object.
+     *
+     * @param capacity The number of most recent samples to keep.
+     */
+    public LatencyStats(int capacity) {
+        samples = new long[capacity];
+    }
+
+    /**
+     * Records a latency sample, replacing the oldest one if all are taken.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+        samples[(int) (count++ % samples.length)] = nanos;
+    }
+
+    /**
+     * Summarizes the kept samples as percentiles in milliseconds.
+     *
+     * @return A description of the median, 95th and 99th percentile and maximum latency.
+     */
+    public synchronized String summarize() {
+        int size = (int) Math.min(count, samples.length);
+        if (size == 0) {
+            return "no samples";
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return String.format("p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms (%d samples)",
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted[size - 1] / 1e6, size);
+    }
+
+    /**
+     * Picks a percentile from sorted samples.
+     *
+     * @param sorted   The samples in ascending order.
+     * @param fraction The percentile as a fraction between 0 and 1.
+     * @return The percentile in milliseconds.
+     */
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,125 @@
+package game;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The PatrolBenchmark class measures how long the patrols take to step on large maps.
+ * It reports the average and worst tick time against the tick budget, both for patrolling
+ * and for chasing patrols, where the tick includes the flow field update.
+ * Every benchmark runs serially, stepping the patrols in index order, and then in parallel on pools
+ * of a growing number of workers. The final positions of every parallel run are compared with the serial run.
+ * Timings for more workers than there are cores only show the overhead of the parallel step.
+ */
+public class PatrolBenchmark {
+    private static final int TICKS = 200;
+    private static final long TICK_BUDGET_NANOS = 16_000_000L;
+
+    /**
+     * The main method runs the benchmarks and prints the results.
+     *
+     * @param args The command-line arguments passed to the program (unused in this case).
+     */
+    public static void main(String[] args) {
+        compare(2048, 100_000, false);
+        compare(512, 5000, true);
+    }
+
+    /**
+     * Runs a benchmark serially and on pools of 2, 4, 8... workers, up to at least the number of cores,
+     * and checks that every run ends with the same positions.
+     *
+     * @param size    The number of rows and columns on the map.
+     * @param count   The number of patrols on the map.
+     * @param chasing Determines if the patrols chase Yogi or patrol along their axis.
+     */
+    private static void compare(int size, int count, boolean chasing) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d cores available%n", cores);
+        long serial = run(size, count, chasing, null);
+        for (int workers = 2; workers < cores * 2 || workers <= 4; workers *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            long parallel = run(size, count, chasing, pool);
+            pool.shutdown();
+            System.out.println(serial == parallel ? "Identical to the serial tick." : "Differs from the serial tick!");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Runs a single benchmark on a randomly generated map.
+     *
+     * @param size     The number of rows and columns on the map.
+     * @param count    The number of patrols on the map.
+     * @param chasing  Determines if the patrols chase Yogi or patrol along their axis.
+     * @param pool     The pool to step the regions of the map on, or null to step the patrols serially.
+     * @return A checksum of the final patrol positions.
+     */
+    private static long run(int size, int count, boolean chasing, ForkJoinPool pool) {
+        Random random = new Random(42);
+        int[][] map = new int[size][size];
+        for (int[] row : map) {
+            for (int j = 0; j < size; j++) {
+                row[j] = random.nextInt(10) == 0 ? 't' : 0;
+            }
+        }
+
+        Board board = new Board(Terrain.fromMap(map));
+        PatrolStore patrols = new PatrolStore(size, size, count);
+        patrols.setParallel(pool != null);
+        if (pool != null) {
+            patrols.setPool(pool);
+        }
+        // Patrols are added in row order, as Terrain.fromMap does when scanning a map
+        double chance = (double) count / (size * size * 0.9);
+        for (int x = 0; x < size && patrols.size() < count; x++) {
+            for (int y = 0; y < size && patrols.size() < count; y++) {
+                if (map[x][y] == 0 && random.nextDouble() < chance) {
+                    patrols.add(x, y, random.nextBoolean());
+                }
+            }
+        }
+
+        FlowField field = new FlowField();
+        int playerX = size / 2, playerY = size / 2;
+        long total = 0, worst = 0;
+        int collisions = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            // Yogi wanders around so the field has to be recomputed on every tick
+            int nextY = playerY + (tick % 2 == 0 ? 1 : -1);
+            if (!board.isBlocked(playerX, nextY) && !patrols.isOccupied(playerX, nextY)) {
+                playerY = nextY;
+            }
+
+            long start = System.nanoTime();
+            if (chasing) {
+                field.update(board, playerX, playerY);
+                patrols.chaseAll(board, field);
+            } else {
+                patrols.moveAll(board);
+            }
+            if (patrols.isNear(playerX, playerY)) {
+                collisions++;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (tick >= TICKS / 4) { // Skip the warm-up ticks
+                total += elapsed;
+                worst = Math.max(worst, elapsed);
+            }
+        }
+
+        long measured = TICKS - TICKS / 4;
+        System.out.printf("%d %s patrols on a %dx%d map, %s, %d collisions%n", count,
+                chasing ? "chasing" : "patrolling", size, size,
+                pool != null ? pool.getParallelism() + " workers" : "serial", collisions);
+        System.out.printf("Average tick: %.3f ms, worst tick: %.3f ms, budget: %.3f ms%n",
+                total / measured / 1e6, worst / 1e6, TICK_BUDGET_NANOS / 1e6);
+        System.out.println(worst <= TICK_BUDGET_NANOS ? "Within budget." : "Over budget!");
+
+        long checksum = 0;
+        for (int i = 0; i < patrols.size(); i++) {
+            checksum = checksum * 31 + (long) patrols.getX(i) * size + patrols.getY(i);
+        }
+        return checksum;
+    }
+}
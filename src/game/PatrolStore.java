@@ -0,0 +1,683 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The PatrolStore class holds every patrol of the Yogi game in parallel primitive arrays.
+ * Patrols are not written into the map; an occupancy index maps each tile to the patrol standing on it,
+ * so movement and collision checks run as tight loops without touching the map's codes.
+ * Maps too small to be stepped in parallel keep the index in a small hash table holding the taken tiles only,
+ * larger maps in an array with an entry for every tile.
+ * <p>
+ * Patrols step one after the other in index order, so a patrol sees the tiles taken by the patrols before it.
+ * Large stores split the map into bands of rows, called regions, and step them in parallel on a fork-join pool
+ * with the same result. A patrol only touches its own tile and its four neighbours, so two patrols more than
+ * two tiles apart never affect each other. Patrols that are linked to a patrol of another region by such short
+ * distances are deferred; the others step in parallel, in index order within their region, and the deferred
+ * ones step afterwards in index order. Every group of patrols that can affect each other is thus stepped
+ * in index order, and the tick gives the same positions as stepping all patrols in index order.
+ */
+public class PatrolStore {
+    private static final int FREE = -1;
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private final int rows, cols;
+    private static final int EMPTY = -1;
+    private final int[] occupancy; // Patrol index standing on each tile, or FREE; null while the index is sparse
+    private int[] occupiedCells; // Hash table of the taken tiles while the index is sparse, EMPTY for unused slots
+    private int[] occupants; // Patrol index standing on the tile in the same slot of occupiedCells
+    private int occupiedCount;
+    private static final int[] NEAR_X = {-2, -1, -1, -1, 0, 0, 0, 0, 1, 1, 1, 2};
+    private static final int[] NEAR_Y = {0, -1, 0, 1, -2, -1, 1, 2, -1, 0, 1, 0};
+    private final int regions;
+    private final int regionRows;
+    private final int[][] members; // Patrols standing in each region in index order, gathered at every parallel step
+    private final int[] memberCount;
+    private final int[][] pending; // Deferred patrols of each region whose neighbours are still to be checked
+    private boolean parallel = true;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private RewindBuffer rewindBuffer; // Records the steps of the patrols, or null
+    private int count;
+    private int[] x, y;
+    private int[] previousX, previousY; // Positions before the last step, for interpolating between tiles
+    private byte[] vertical; // 1 for vertical patrols, 0 for horizontal ones
+    private byte[] direction; // 1 for positive movement, -1 for negative movement
+    private byte[] deferred; // 1 for patrols stepped after the regions in a parallel step, created by the first one
+
+    /**
+     * Constructs an empty PatrolStore for a map of the given size.
+     *
+     * @param rows     The number of rows on the map.
+     * @param cols     The number of columns on the map.
+     * @param capacity The number of patrols to reserve room for.
+     */
+    public PatrolStore(int rows, int cols, int capacity) {
+        this.rows = rows;
+        this.cols = cols;
+        capacity = Math.max(capacity, 1);
+
+        // A map too small to reach the parallel threshold is a single region with a sparse index, keeping small stores small
+        if (rows * cols < PARALLEL_THRESHOLD) {
+            this.occupancy = null;
+            this.occupiedCells = new int[Math.max(8, Integer.highestOneBit(capacity) * 4)];
+            this.occupants = new int[occupiedCells.length];
+            Arrays.fill(occupiedCells, EMPTY);
+            this.regions = 1;
+        } else {
+            this.occupancy = new int[rows * cols];
+            Arrays.fill(occupancy, FREE);
+            int bands = Math.max(1, Math.min(rows, Runtime.getRuntime().availableProcessors() * 4));
+            int bandRows = (rows + bands - 1) / bands;
+            this.regions = (rows + bandRows - 1) / bandRows;
+        }
+        this.regionRows = (rows + regions - 1) / regions;
+        this.members = regions > 1 ? new int[regions][16] : null;
+        this.memberCount = regions > 1 ? new int[regions] : null;
+        this.pending = regions > 1 ? new int[regions][16] : null;
+
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.previousX = new int[capacity];
+        this.previousY = new int[capacity];
+        this.vertical = new byte[capacity];
+        this.direction = new byte[capacity];
+    }
+
+    /**
+     * Creates a PatrolStore holding the rangers of a terrain at their starting tiles.
+     *
+     * @param terrain The terrain of the map.
+     * @return The PatrolStore holding the patrols of the terrain.
+     */
+    public static PatrolStore fromTerrain(Terrain terrain) {
+        PatrolStore patrols = new PatrolStore(terrain.getRows(), terrain.getCols(), terrain.getPatrolCount());
+        for (int k = 0; k < terrain.getPatrolCount(); k++) {
+            patrols.add(terrain.getPatrolX(k), terrain.getPatrolY(k), terrain.isPatrolVertical(k));
+        }
+        return patrols;
+    }
+
+    /**
+     * Adds a patrol moving initially in the positive direction.
+     *
+     * @param x          The initial x-coordinate of the patrol.
+     * @param y          The initial y-coordinate of the patrol.
+     * @param isVertical Determines if the patrol moves vertically or horizontally.
+     * @return The index of the new patrol.
+     */
+    public int add(int x, int y, boolean isVertical) {
+        if (count == this.x.length) {
+            int capacity = count * 2;
+            this.x = Arrays.copyOf(this.x, capacity);
+            this.y = Arrays.copyOf(this.y, capacity);
+            this.previousX = Arrays.copyOf(this.previousX, capacity);
+            this.previousY = Arrays.copyOf(this.previousY, capacity);
+            this.vertical = Arrays.copyOf(this.vertical, capacity);
+            this.direction = Arrays.copyOf(this.direction, capacity);
+        }
+        this.x[count] = x;
+        this.y[count] = y;
+        this.previousX[count] = x;
+        this.previousY[count] = y;
+        this.vertical[count] = (byte) (isVertical ? 1 : 0);
+        this.direction[count] = 1;
+        occupy(x * cols + y, count);
+        return count++;
+    }
+
+    /**
+     * Writes the positions, axes and directions of all patrols into a buffer.
+     *
+     * @param buffer The buffer to write to.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(x[i]).putInt(y[i]).put(vertical[i]).put(direction[i]);
+        }
+    }
+
+    /**
+     * Reads the patrols written by the write method from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @param rows   The number of rows on the map.
+     * @param cols   The number of columns on the map.
+     * @return The PatrolStore holding the patrols read from the buffer.
+     */
+    public static PatrolStore read(ByteBuffer buffer, int rows, int cols) {
+        int count = buffer.getInt();
+        PatrolStore patrols = new PatrolStore(rows, cols, count);
+        for (int i = 0; i < count; i++) {
+            patrols.add(buffer.getInt(), buffer.getInt(), buffer.get() != 0);
+            patrols.direction[i] = buffer.get();
+        }
+        return patrols;
+    }
+
+    /**
+     * Retrieves the number of bytes the write method writes.
+     *
+     * @return The size of the written patrols in bytes.
+     */
+    public int getStateSize() {
+        return Integer.BYTES + count * (2 * Integer.BYTES + 2);
+    }
+
+    /**
+     * Determines whether large stores are stepped in parallel. Small stores are always stepped serially.
+     *
+     * @param parallel True to step regions in parallel, false to step the patrols one after the other.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Sets the fork-join pool regions are stepped on, e.g. to measure how the step scales with the number of workers.
+     *
+     * @param pool The pool to step regions on, the common pool by default.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Records the positions and directions the patrols had before every step, so the steps can be rewound.
+     * While recording, the regions are stepped one after the other.
+     *
+     * @param rewindBuffer The buffer to record the steps in, or null to stop recording.
+     */
+    public void setRewindBuffer(RewindBuffer rewindBuffer) {
+        this.rewindBuffer = rewindBuffer;
+    }
+
+    /**
+     * Retrieves the number of patrols in the store.
+     *
+     * @return The number of patrols.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Retrieves the current x-coordinate of a patrol.
+     *
+     * @param i The index of the patrol.
+     * @return The x-coordinate of the patrol.
+     */
+    public int getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Retrieves the current y-coordinate of a patrol.
+     *
+     * @param i The index of the patrol.
+     * @return The y-coordinate of the patrol.
+     */
+    public int getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Retrieves the x-coordinate of a patrol before its last step.
+     *
+     * @param i The index of the patrol.
+     * @return The previous x-coordinate of the patrol.
+     */
+    public int getPreviousX(int i) {
+        return previousX[i];
+    }
+
+    /**
+     * Retrieves the y-coordinate of a patrol before its last step.
+     *
+     * @param i The index of the patrol.
+     * @return The previous y-coordinate of the patrol.
+     */
+    public int getPreviousY(int i) {
+        return previousY[i];
+    }
+
+    /**
+     * Checks whether a patrol moves vertically or horizontally.
+     *
+     * @param i The index of the patrol.
+     * @return True if the patrol moves vertically, otherwise False.
+     */
+    public boolean isVertical(int i) {
+        return vertical[i] != 0;
+    }
+
+    /**
+     * Retrieves the patrol standing on a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The index of the patrol, or -1 if the tile is free.
+     */
+    public int getPatrolAt(int x, int y) {
+        return x >= 0 && x < rows && y >= 0 && y < cols ? occupant(x * cols + y) : FREE;
+    }
+
+    /**
+     * Checks whether a patrol stands on a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if a patrol stands on the tile, otherwise False.
+     */
+    public boolean isOccupied(int x, int y) {
+        return x >= 0 && x < rows && y >= 0 && y < cols && occupant(x * cols + y) != FREE;
+    }
+
+    /**
+     * Checks whether any patrol stands on a tile or one of its eight neighbours.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if a patrol is within one tile, otherwise False.
+     */
+    public boolean isNear(int x, int y) {
+        for (int i = x - 1; i <= x + 1; i++) {
+            for (int j = y - 1; j <= y + 1; j++) {
+                if (isOccupied(i, j)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves every patrol by an offset, after the map was shifted under them by the same offset.
+     * Patrols ending up outside the map are removed, the others keep their axis and direction.
+     * The indices of the remaining patrols may change.
+     *
+     * @param dx The change in the x-coordinate of every patrol.
+     * @param dy The change in the y-coordinate of every patrol.
+     */
+    public void shift(int dx, int dy) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int newX = x[i] + dx, newY = y[i] + dy;
+            if (newX >= 0 && newX < rows && newY >= 0 && newY < cols) {
+                x[kept] = newX;
+                y[kept] = newY;
+                previousX[kept] = previousX[i] + dx;
+                previousY[kept] = previousY[i] + dy;
+                vertical[kept] = vertical[i];
+                direction[kept] = direction[i];
+                kept++;
+            }
+        }
+        count = kept;
+        reindex();
+    }
+
+    /**
+     * Puts a patrol back at a position it had before, e.g. while rewinding, and updates the occupancy index.
+     *
+     * @param i The index of the patrol.
+     * @param x The x-coordinate to put the patrol at.
+     * @param y The y-coordinate to put the patrol at.
+     */
+    void restorePosition(int i, int x, int y) {
+        int cell = this.x[i] * cols + this.y[i];
+        if (occupant(cell) == i) {
+            vacate(cell);
+        }
+        occupy(x * cols + y, i);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.previousX[i] = x;
+        this.previousY[i] = y;
+    }
+
+    /**
+     * Gives a patrol back a direction it had before, e.g. while rewinding.
+     *
+     * @param i         The index of the patrol.
+     * @param direction The direction of the patrol.
+     */
+    void restoreDirection(int i, byte direction) {
+        this.direction[i] = direction;
+    }
+
+    /**
+     * Rebuilds the occupancy index from the positions of the patrols.
+     */
+    private void reindex() {
+        if (occupancy != null) {
+            Arrays.fill(occupancy, FREE);
+        } else {
+            Arrays.fill(occupiedCells, EMPTY);
+            occupiedCount = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            occupy(x[i] * cols + y[i], i);
+        }
+    }
+
+    /**
+     * Retrieves the patrol standing on a tile from the occupancy index.
+     *
+     * @param cell The index of the tile, row by row.
+     * @return The index of the patrol, or FREE.
+     */
+    private int occupant(int cell) {
+        if (occupancy != null) {
+            return occupancy[cell];
+        }
+        int mask = occupiedCells.length - 1;
+        for (int slot = hash(cell) & mask; occupiedCells[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (occupiedCells[slot] == cell) {
+                return occupants[slot];
+            }
+        }
+        return FREE;
+    }
+
+    /**
+     * Records in the occupancy index that a patrol stands on a tile.
+     * The hash table of a sparse index is kept at most half full.
+     *
+     * @param cell The index of the tile, row by row.
+     * @param i    The index of the patrol.
+     */
+    private void occupy(int cell, int i) {
+        if (occupancy != null) {
+            occupancy[cell] = i;
+            return;
+        }
+        if ((occupiedCount + 1) * 2 > occupiedCells.length) {
+            int[] oldCells = occupiedCells, oldOccupants = occupants;
+            occupiedCells = new int[oldCells.length * 2];
+            occupants = new int[oldCells.length * 2];
+            Arrays.fill(occupiedCells, EMPTY);
+            occupiedCount = 0;
+            for (int slot = 0; slot < oldCells.length; slot++) {
+                if (oldCells[slot] != EMPTY) {
+                    occupy(oldCells[slot], oldOccupants[slot]);
+                }
+            }
+        }
+        int mask = occupiedCells.length - 1;
+        int slot = hash(cell) & mask;
+        while (occupiedCells[slot] != EMPTY && occupiedCells[slot] != cell) {
+            slot = (slot + 1) & mask;
+        }
+        if (occupiedCells[slot] == EMPTY) {
+            occupiedCells[slot] = cell;
+            occupiedCount++;
+        }
+        occupants[slot] = i;
+    }
+
+    /**
+     * Records in the occupancy index that a tile is free.
+     * In a sparse index, the entries following the freed slot are moved back so every entry stays reachable.
+     *
+     * @param cell The index of the tile, row by row.
+     */
+    private void vacate(int cell) {
+        if (occupancy != null) {
+            occupancy[cell] = FREE;
+            return;
+        }
+        int mask = occupiedCells.length - 1;
+        int slot = hash(cell) & mask;
+        while (occupiedCells[slot] != cell) {
+            if (occupiedCells[slot] == EMPTY) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        for (int next = (slot + 1) & mask; occupiedCells[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(occupiedCells[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                occupiedCells[slot] = occupiedCells[next];
+                occupants[slot] = occupants[next];
+                slot = next;
+            }
+        }
+        occupiedCells[slot] = EMPTY;
+        occupiedCount--;
+    }
+
+    /**
+     * Spreads the index of a tile over the slots of the hash table.
+     *
+     * @param cell The index of the tile, row by row.
+     * @return The hash of the tile.
+     */
+    private static int hash(int cell) {
+        int h = cell * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Moves every patrol one step along its axis.
+     * A patrol reverses its direction instead if the next step leaves the map
+     * or runs into a tree, a mountain, a basket or another patrol.
+     *
+     * @param board The board representing the game grid.
+     */
+    public void moveAll(Board board) {
+        step(board, null);
+    }
+
+    /**
+     * Moves every patrol one step towards Yogi along the flow field.
+     * A patrol waits if every closer tile is taken by another patrol,
+     * and falls back to its regular movement pattern if Yogi cannot be reached.
+     *
+     * @param board The board representing the game grid.
+     * @param field The flow field computed from Yogi's position.
+     */
+    public void chaseAll(Board board, FlowField field) {
+        step(board, field);
+    }
+
+    /**
+     * Steps every patrol in index order, or region by region with the same result if the store is large enough
+     * and there is more than one worker to run on.
+     *
+     * @param board The board representing the game grid.
+     * @param field The flow field to chase Yogi along, or null to patrol.
+     */
+    private void step(Board board, FlowField field) {
+        System.arraycopy(x, 0, previousX, 0, count);
+        System.arraycopy(y, 0, previousY, 0, count);
+        if (!parallel || rewindBuffer != null || count < PARALLEL_THRESHOLD || regions == 1
+                || pool.getParallelism() == 1) {
+            for (int i = 0; i < count; i++) {
+                stepOne(i, board, field);
+            }
+            return;
+        }
+
+        if (deferred == null || deferred.length < count) {
+            deferred = new byte[x.length];
+        }
+        Arrays.fill(memberCount, 0);
+        for (int i = 0; i < count; i++) {
+            int region = x[i] / regionRows;
+            members[region] = append(members[region], memberCount[region]++, i);
+        }
+        forEachRegion(this::markDeferred);
+        forEachRegion(region -> stepRegion(region, board, field));
+        for (int i = 0; i < count; i++) {
+            if (deferred[i] != 0) {
+                stepOne(i, board, field);
+            }
+        }
+    }
+
+    /**
+     * Runs a step for every region in parallel on the pool.
+     *
+     * @param step The step to run for a region.
+     */
+    private void forEachRegion(IntConsumer step) {
+        pool.submit(() -> IntStream.range(0, regions).parallel().forEach(step)).join();
+    }
+
+    /**
+     * Marks the patrols of a region that may affect or be affected by a patrol of another region.
+     * These are the patrols within two rows of a neighbouring region, and the patrols linked to them
+     * through patrols at most two tiles apart. Only the tiles of the region are looked at.
+     *
+     * @param region The index of the region.
+     */
+    private void markDeferred(int region) {
+        int firstRow = region * regionRows;
+        int lastRow = Math.min(rows, firstRow + regionRows) - 1;
+        int[] patrols = members[region];
+        int[] stack = pending[region];
+        int size = 0;
+        for (int k = 0; k < memberCount[region]; k++) {
+            int i = patrols[k];
+            boolean nearEdge = region > 0 && x[i] <= firstRow + 1 || region < regions - 1 && x[i] >= lastRow - 1;
+            deferred[i] = (byte) (nearEdge ? 1 : 0);
+            if (nearEdge) {
+                stack = append(stack, size++, i);
+            }
+        }
+
+        while (size > 0) {
+            int i = stack[--size];
+            for (int k = 0; k < NEAR_X.length; k++) {
+                int nx = x[i] + NEAR_X[k], ny = y[i] + NEAR_Y[k];
+                if (nx < firstRow || nx > lastRow || ny < 0 || ny >= cols) {
+                    continue;
+                }
+                int j = occupancy[nx * cols + ny];
+                if (j != FREE && deferred[j] == 0) {
+                    deferred[j] = 1;
+                    stack = append(stack, size++, j);
+                }
+            }
+        }
+        pending[region] = stack;
+    }
+
+    /**
+     * Steps the patrols of a region that were not deferred, in index order.
+     * They only touch tiles of their own region that no patrol of another region touches.
+     *
+     * @param region The index of the region.
+     * @param board  The board representing the game grid.
+     * @param field  The flow field to chase Yogi along, or null to patrol.
+     */
+    private void stepRegion(int region, Board board, FlowField field) {
+        int[] patrols = members[region];
+        for (int k = 0; k < memberCount[region]; k++) {
+            int i = patrols[k];
+            if (deferred[i] == 0) {
+                stepOne(i, board, field);
+            }
+        }
+    }
+
+    /**
+     * Steps a single patrol, chasing Yogi if a flow field is given.
+     *
+     * @param i     The index of the patrol.
+     * @param board The board representing the game grid.
+     * @param field The flow field to chase Yogi along, or null to patrol.
+     */
+    private void stepOne(int i, Board board, FlowField field) {
+        if (field != null && field.getDistance(x[i], y[i]) != FlowField.UNREACHABLE) {
+            chaseOne(i, field);
+        } else {
+            moveOne(i, board);
+        }
+    }
+
+    /**
+     * Moves a single patrol one step along its axis, or reverses its direction if the step is blocked.
+     *
+     * @param i   The index of the patrol.
+     * @param board The board representing the game grid.
+     */
+    private void moveOne(int i, Board board) {
+        int nextX = x[i], nextY = y[i];
+        if (vertical[i] != 0) {
+            nextX += direction[i];
+        } else {
+            nextY += direction[i];
+        }
+
+        if (nextX < 0 || nextX >= rows || nextY < 0 || nextY >= cols
+                || !FlowField.isWalkable(board, nextX, nextY) || occupant(nextX * cols + nextY) != FREE) {
+            if (rewindBuffer != null) {
+                rewindBuffer.recordPatrolDirection(i, direction[i]);
+            }
+            direction[i] = (byte) -direction[i];
+        } else {
+            relocate(i, nextX, nextY);
+        }
+    }
+
+    /**
+     * Moves a single patrol to the free neighbouring tile closest to Yogi, or lets it wait if there is none.
+     *
+     * @param i     The index of the patrol.
+     * @param field The flow field computed from Yogi's position.
+     */
+    private void chaseOne(int i, FlowField field) {
+        int best = field.getDistance(x[i], y[i]);
+        int nextX = x[i], nextY = y[i];
+        for (int k = 0; k < FlowField.STEP_X.length; k++) {
+            int candidateX = x[i] + FlowField.STEP_X[k];
+            int candidateY = y[i] + FlowField.STEP_Y[k];
+            int distance = field.getDistance(candidateX, candidateY);
+            // Yogi's own tile is left alone, the collision check catches him from the neighbouring tile
+            if (distance > 0 && distance < best && occupant(candidateX * cols + candidateY) == FREE) {
+                best = distance;
+                nextX = candidateX;
+                nextY = candidateY;
+            }
+        }
+        relocate(i, nextX, nextY);
+    }
+
+    /**
+     * Moves a patrol to a tile and updates the occupancy index.
+     *
+     * @param i     The index of the patrol.
+     * @param nextX The new x-coordinate of the patrol.
+     * @param nextY The new y-coordinate of the patrol.
+     */
+    private void relocate(int i, int nextX, int nextY) {
+        if (rewindBuffer != null && (nextX != x[i] || nextY != y[i])) {
+            rewindBuffer.recordPatrolPosition(i, x[i], y[i]);
+        }
+        vacate(x[i] * cols + y[i]);
+        x[i] = nextX;
+        y[i] = nextY;
+        occupy(nextX * cols + nextY, i);
+    }
+
+    /**
+     * Stores a value in an array, growing the array if it is full.
+     *
+     * @param array The array to store the value in.
+     * @param index The index to store the value at.
+     * @param value The value to store.
+     * @return The array holding the value.
+     */
+    private static int[] append(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[index] = value;
+        return array;
+    }
+}
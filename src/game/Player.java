@@ -1,16 +1,20 @@
 package game;
 
+import java.nio.ByteBuffer;
+
 /**
  * The Player class represents the player in the Yogi game.
  * It manages the player's position, score, health points, and movement.
  */
 public class Player {
-    private final int initialX;
-    private final int initialY;
+    private int initialX;
+    private int initialY;
     private int x, y;
+    private int previousX, previousY; // Position before the last move, for interpolating between tiles
     private int score;
     private int HP;
     private int basketCount;
+    private RewindBuffer rewindBuffer; // Records the changes made by the player, or null
 
     /**
      * Constructs a Player object with initial position and default score and health points.
@@ -24,11 +28,29 @@ public class Player {
 
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
 
         this.score = 0;
         this.HP = 3;
     }
 
+    /**
+     * Creates a Player at the gate of a board, carrying as many baskets as there are left on the board.
+     *
+     * @param board The board representing the game grid.
+     * @return The Player object, or null if the board has no starting position.
+     */
+    public static Player fromBoard(Board board) {
+        Terrain terrain = board.getTerrain();
+        if (terrain.getStartX() < 0) {
+            return null;
+        }
+        Player player = new Player(terrain.getStartX(), terrain.getStartY());
+        player.setBasketCount(board.countBaskets());
+        return player;
+    }
+
     /**
      * Retrieves the current x-coordinate of the player.
      *
@@ -47,6 +69,53 @@ public class Player {
         return this.y;
     }
 
+    /**
+     * Retrieves the x-coordinate of the player before the last move.
+     *
+     * @return The previous x-coordinate of the player.
+     */
+    public int getPreviousX() {
+        return this.previousX;
+    }
+
+    /**
+     * Retrieves the y-coordinate of the player before the last move.
+     *
+     * @return The previous y-coordinate of the player.
+     */
+    public int getPreviousY() {
+        return this.previousY;
+    }
+
+    /**
+     * Retrieves the x-coordinate of the position the player starts at and is reset to.
+     *
+     * @return The starting x-coordinate of the player.
+     */
+    public int getStartX() {
+        return this.initialX;
+    }
+
+    /**
+     * Retrieves the y-coordinate of the position the player starts at and is reset to.
+     *
+     * @return The starting y-coordinate of the player.
+     */
+    public int getStartY() {
+        return this.initialY;
+    }
+
+    /**
+     * Checks whether a tile is the player's starting position, where the park's gate is.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if the tile is the starting position, otherwise False.
+     */
+    public boolean isStart(int x, int y) {
+        return x == initialX && y == initialY;
+    }
+
     /**
      * Retrieves the player's current score.
      *
@@ -80,6 +149,9 @@ public class Player {
      * @param hp The new health points value to set.
      */
     public void setHP(int hp) {
+        if (rewindBuffer != null) {
+            rewindBuffer.recordPlayerStats(score, HP, basketCount);
+        }
         this.HP = hp;
     }
 
@@ -102,56 +174,174 @@ public class Player {
     }
 
     /**
-     * Moves the player on the map based on specified dx and dy values.
+     * Records the changes the player makes to himself and the board, so they can be rewound.
+     *
+     * @param rewindBuffer The buffer to record the changes in, or null to stop recording.
+     */
+    public void setRewindBuffer(RewindBuffer rewindBuffer) {
+        this.rewindBuffer = rewindBuffer;
+    }
+
+    /**
+     * Moves the player on the board based on specified dx and dy values.
      * It also manages score updates and collision checks with game elements.
      *
-     * @param dx       The change in the x-coordinate for player movement.
-     * @param dy       The change in the y-coordinate for player movement.
-     * @param map      The map representing the game grid.
-     * @param gridSize The size of the game grid.
+     * @param dx      The change in the x-coordinate for player movement.
+     * @param dy      The change in the y-coordinate for player movement.
+     * @param board   The board representing the game grid.
+     * @param patrols The patrols on the board.
      */
-    public void move(int dx, int dy, int[][] map, int gridSize) {
+    public void move(int dx, int dy, Board board, PatrolStore patrols) {
         int newX = x + dx;
         int newY = y + dy;
 
-        if (isValidMove(newX, newY, map, gridSize)) {
+        if (isValidMove(newX, newY, board, patrols)) {
+            if (rewindBuffer != null) {
+                rewindBuffer.recordPlayerPosition(x, y);
+            }
 
-            if (map[newX][newY] == 'b') {
+            if (board.takeBasket(newX, newY)) {
+                if (rewindBuffer != null) {
+                    rewindBuffer.recordBasket(newX, newY);
+                    rewindBuffer.recordPlayerStats(score, HP, basketCount);
+                }
                 score++;
                 basketCount--;
             }
 
-            map[x][y] = (x == initialX && y == initialY) ? 'g' : 0;
+            previousX = x;
+            previousY = y;
             x = newX;
             y = newY;
-            map[x][y] = 'y';
         }
     }
 
     /**
      * Checks if the intended move for the player is valid within the game grid and avoids collisions.
      *
-     * @param newX     The new x-coordinate after the intended move.
-     * @param newY     The new y-coordinate after the intended move.
-     * @param map      The map representing the game grid.
-     * @param gridSize The size of the game grid.
+     * @param newX    The new x-coordinate after the intended move.
+     * @param newY    The new y-coordinate after the intended move.
+     * @param board   The board representing the game grid.
+     * @param patrols The patrols on the board.
      * @return True if the move is valid and doesn't cause collision, otherwise False.
      */
-    private boolean isValidMove(int newX, int newY, int[][] map, int gridSize) {
-        return newX >= 0 && newX < gridSize && newY >= 0 && newY < gridSize &&
-                map[newX][newY] != 't' && map[newX][newY] != 'm' &&
-                map[newX][newY] != 'v' && map[newX][newY] != 'h';
+    private boolean isValidMove(int newX, int newY, Board board, PatrolStore patrols) {
+        return newX >= 0 && newX < board.getRows() && newY >= 0 && newY < board.getCols() &&
+                !board.isBlocked(newX, newY) &&
+                !patrols.isOccupied(newX, newY);
+    }
+
+    /**
+     * Resets the player's position to its initial position, or to the closest tile he can walk to from there
+     * without a patrol within one tile, so he is not caught again right after losing a life.
+     * If every reachable tile is near a patrol, he is reset to his initial position.
+     *
+     * @param board   The board representing the game grid.
+     * @param patrols The patrols on the board.
+     */
+    public void resetPosition(Board board, PatrolStore patrols) {
+        int targetX = initialX, targetY = initialY;
+        if (patrols.isNear(initialX, initialY)) {
+            FlowField field = new FlowField();
+            field.update(board, initialX, initialY);
+            int best = FlowField.UNREACHABLE;
+            for (int i = 0; i < board.getRows(); i++) {
+                for (int j = 0; j < board.getCols(); j++) {
+                    int distance = field.getDistance(i, j);
+                    if (distance < best && !patrols.isNear(i, j)) {
+                        best = distance;
+                        targetX = i;
+                        targetY = j;
+                    }
+                }
+            }
+        }
+
+        if (rewindBuffer != null) {
+            rewindBuffer.recordPlayerPosition(x, y);
+        }
+        this.x = targetX;
+        this.y = targetY;
+        this.previousX = targetX;
+        this.previousY = targetY;
+    }
+
+    /**
+     * Puts the player back at a position he had before, e.g. while rewinding.
+     *
+     * @param x The x-coordinate to put the player at.
+     * @param y The y-coordinate to put the player at.
+     */
+    void restorePosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.previousX = x;
+        this.previousY = y;
+    }
+
+    /**
+     * Gives the player back the score, health points and basket count he had before, e.g. while rewinding.
+     *
+     * @param score       The score of the player.
+     * @param hp          The health points of the player.
+     * @param basketCount The basket count of the player.
+     */
+    void restoreStats(int score, int hp, int basketCount) {
+        this.score = score;
+        this.HP = hp;
+        this.basketCount = basketCount;
+    }
+
+    /**
+     * Moves the player by an offset, after the board was shifted under him by the same offset.
+     * His current tile becomes the position he is reset to, as the starting position may have left the board.
+     *
+     * @param dx The change in the x-coordinate of the player.
+     * @param dy The change in the y-coordinate of the player.
+     */
+    public void shift(int dx, int dy) {
+        x += dx;
+        y += dy;
+        previousX += dx;
+        previousY += dy;
+        initialX = x;
+        initialY = y;
+    }
+
+    /**
+     * Writes the player's position, score, health points and basket count into a buffer.
+     *
+     * @param buffer The buffer to write to.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(initialX).putInt(initialY).putInt(x).putInt(y);
+        buffer.putInt(score).putInt(HP).putInt(basketCount);
+    }
+
+    /**
+     * Reads a player written by the write method from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @return The Player object read from the buffer.
+     */
+    public static Player read(ByteBuffer buffer) {
+        Player player = new Player(buffer.getInt(), buffer.getInt());
+        player.x = buffer.getInt();
+        player.y = buffer.getInt();
+        player.previousX = player.x;
+        player.previousY = player.y;
+        player.score = buffer.getInt();
+        player.HP = buffer.getInt();
+        player.basketCount = buffer.getInt();
+        return player;
     }
 
     /**
-     * Resets the player's position on the map to its initial position.
+     * Retrieves the number of bytes the write method writes.
      *
-     * @param map The map representing the game grid.
+     * @return The size of a written player in bytes.
      */
-    public void resetPosition(int[][] map) {
-        map[x][y] = 0;
-        this.x = initialX;
-        this.y = initialY;
-        map[x][y] = 'y';
+    public static int getStateSize() {
+        return 7 * Integer.BYTES;
     }
 }
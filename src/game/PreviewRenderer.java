@@ -0,0 +1,182 @@
+package game;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The PreviewRenderer class renders map previews without opening a window.
+ * It draws a thumbnail of every board in the maps folder and of a number of generated boards,
+ * and optionally a sequence of frames showing the patrols walking around on each board.
+ * The boards are rendered in parallel, one per core. The tile images are shared by all threads,
+ * and every thread draws into its own image, which is reused for all the boards of the same size.
+ */
+public class PreviewRenderer {
+    private static final int TILE_SIZE = 16;
+    private static final int GENERATED_ROWS = 15;
+    private static final int GENERATED_COLS = 15;
+    private final BoardRenderer boardRenderer;
+    private final File outputDir;
+    private final int frames;
+    private final ThreadLocal<BufferedImage> images = new ThreadLocal<>();
+    private final ThreadLocal<GameSnapshot> snapshots = ThreadLocal.withInitial(GameSnapshot::new);
+
+    /**
+     * Constructs a PreviewRenderer writing into the given folder.
+     *
+     * @param tileSet   The images of the tiles.
+     * @param outputDir The folder to write the previews to.
+     * @param frames    The number of frames to render per board, besides the thumbnail.
+     */
+    public PreviewRenderer(TileSet tileSet, File outputDir, int frames) {
+        this.boardRenderer = new BoardRenderer(tileSet);
+        this.outputDir = outputDir;
+        this.frames = frames;
+    }
+
+    /**
+     * The main method renders the previews and prints how long it took.
+     * Usage: PreviewRenderer [output folder] [number of generated boards] [frames per board]
+     *
+     * @param args The command-line arguments passed to the program.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        ImageIO.setUseCache(false); // Encode in memory instead of through temporary files
+
+        File outputDir = new File(args.length > 0 ? args[0] : "previews");
+        int generated = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int frames = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        try {
+            PreviewRenderer renderer = new PreviewRenderer(TileSet.getInstance(), outputDir, frames);
+            long start = System.nanoTime();
+            int count = renderer.renderAll(new File("maps"), generated);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Rendered %d boards in %.2f s (%.0f boards per minute)%n",
+                    count, seconds, count / seconds * 60);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Renders the boards of a folder and a number of generated boards, using every core.
+     *
+     * @param mapDir    The folder holding the map files.
+     * @param generated The number of boards to generate.
+     * @return The number of boards rendered.
+     * @throws IOException If the output folder cannot be created.
+     */
+    public int renderAll(File mapDir, int generated) throws IOException {
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<Boolean>> results = new ArrayList<>();
+        File[] files = mapDir.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                String name = file.getName().substring(0, file.getName().length() - 4);
+                results.add(executor.submit(() -> render(name, YogiGameMap.loadMap(file))));
+            }
+        }
+        for (int seed = 0; seed < generated; seed++) {
+            long mapSeed = seed;
+            results.add(executor.submit(() -> render("generated" + mapSeed,
+                    YogiGameMap.generateMap(mapSeed, GENERATED_ROWS, GENERATED_COLS))));
+        }
+        executor.shutdown();
+
+        int count = 0;
+        for (Future<Boolean> result : results) {
+            try {
+                if (result.get()) {
+                    count++;
+                }
+            } catch (ExecutionException e) {
+                System.err.println(e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Renders the thumbnail and the frames of a board.
+     * The frames are written into a folder named after the board.
+     *
+     * @param name The name of the board.
+     * @param map  The map representing the game grid.
+     * @return True if the board was rendered, or False if it has no starting position for Yogi.
+     * @throws IOException If an I/O exception occurs while writing the images.
+     */
+    private boolean render(String name, int[][] map) throws IOException {
+        Board board = new Board(Terrain.fromMap(map));
+        Player player = Player.fromBoard(board);
+        if (player == null) {
+            System.err.println("No starting position on " + name);
+            return false;
+        }
+        PatrolStore patrols = PatrolStore.fromTerrain(board.getTerrain());
+        Camera camera = new Camera(TILE_SIZE);
+        writeFrame(new File(outputDir, name + ".png"), camera, board, player, patrols);
+
+        if (frames > 0) {
+            File frameDir = new File(outputDir, name);
+            if (!frameDir.isDirectory() && !frameDir.mkdirs()) {
+                throw new IOException("Cannot create " + frameDir);
+            }
+            for (int frame = 0; frame < frames; frame++) {
+                File file = new File(frameDir, String.format("frame%03d.png", frame));
+                writeFrame(file, camera, board, player, patrols);
+                patrols.moveAll(board);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draws the whole board into this thread's image and writes it as a PNG file.
+     *
+     * @param file    The file to write.
+     * @param camera  The camera to view the board through.
+     * @param board   The board representing the game grid.
+     * @param player  The player to draw.
+     * @param patrols The patrols to draw.
+     * @throws IOException If an I/O exception occurs while writing the image.
+     */
+    private void writeFrame(File file, Camera camera, Board board, Player player, PatrolStore patrols)
+            throws IOException {
+        int width = board.getCols() * camera.getTileSize();
+        int height = board.getRows() * camera.getTileSize();
+        BufferedImage image = images.get();
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            images.set(image);
+        }
+
+        Graphics2D g = image.createGraphics();
+        try {
+            GameSnapshot frame = snapshots.get();
+            camera.follow(player.getX(), player.getY(), width, height, board.getRows(), board.getCols());
+            frame.take(board, player, patrols, camera, 0, 0);
+            boardRenderer.draw(g, camera, width, height, frame, 1, 1);
+        } finally {
+            g.dispose();
+        }
+        ImageIO.write(image, "png", file);
+    }
+}
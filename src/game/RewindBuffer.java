@@ -0,0 +1,285 @@
+package game;
+
+/**
+ * The RewindBuffer class records how the game state changes from tick to tick, so the game can be rewound.
+ * Every change is packed into a single long holding a basket that was picked up, or the old value
+ * of the player's position or stats, or of a patrol's position or direction. The changes of a tick are followed by a tick marker;
+ * consecutive ticks without changes share one marker.
+ * <p>
+ * The changes are kept in a ring that starts small and doubles as changes are recorded, up to room for the player's
+ * changes and for every patrol step over the horizon. A session that is never rewound far stays small.
+ * When the ring is full at that size or holds more ticks than the horizon, the oldest ticks are dropped.
+ * Rewinding applies the old values in reverse order without allocating, in time proportional to the changes undone.
+ */
+public class RewindBuffer {
+    private static final int ENTRIES_PER_TICK = 4;
+    private static final int TICK = 1, BASKET = 2, PLAYER_POSITION = 3, PLAYER_STATS = 4,
+            PATROL_POSITION = 5, PATROL_DIRECTION = 6;
+    private static final int TYPE_SHIFT = 60;
+    private static final long MASK_20 = (1L << 20) - 1;
+    private static final long TICK_COUNT_MASK = (1L << TYPE_SHIFT) - 1;
+    private static final int INITIAL_ENTRIES = 64;
+    private long[] entries;
+    private final int horizon;
+    private int limit; // Number of entries the ring may grow to
+    private int head; // Index the next entry is written at
+    private int size; // Number of entries in the ring
+    private int ticks; // Number of complete ticks in the ring
+    private boolean tickChanged; // Determines if a change was recorded since the last tick marker
+
+    /**
+     * Constructs a RewindBuffer for the given number of ticks.
+     * The ring may grow to a few changes of the player per tick on average; busier ticks shorten the horizon.
+     * Room for the patrols is allowed for by the reserve method.
+     *
+     * @param horizon The number of ticks that can be rewound.
+     */
+    public RewindBuffer(int horizon) {
+        this.horizon = horizon;
+        this.limit = Math.max(horizon * ENTRIES_PER_TICK, 1);
+        this.entries = new long[Math.min(INITIAL_ENTRIES, limit)];
+    }
+
+    /**
+     * Lets the ring grow to hold the steps of a number of patrols over the whole horizon.
+     * A patrol records at most one change per step, so the horizon does not shrink with the number of patrols.
+     * The room is only allocated as the changes are recorded.
+     *
+     * @param patrolCount  The number of patrols.
+     * @param ticksPerStep The number of ticks between two steps of the patrols.
+     */
+    public void reserve(int patrolCount, int ticksPerStep) {
+        limit = Math.max(limit, horizon * ENTRIES_PER_TICK + (horizon / ticksPerStep + 1) * patrolCount);
+    }
+
+    /**
+     * Moves the recorded changes into a ring of another length, oldest first.
+     *
+     * @param length The new length of the ring, at least the number of recorded entries.
+     */
+    private void resize(int length) {
+        long[] resized = new long[length];
+        int oldest = (head - size + entries.length) % entries.length;
+        for (int k = 0; k < size; k++) {
+            resized[k] = entries[(oldest + k) % entries.length];
+        }
+        entries = resized;
+        head = size;
+    }
+
+    /**
+     * Records that the basket on a tile was picked up.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void recordBasket(int x, int y) {
+        append(pack(BASKET, x, y, 0));
+    }
+
+    /**
+     * Records the position the player had before he moved.
+     *
+     * @param x The previous x-coordinate of the player.
+     * @param y The previous y-coordinate of the player.
+     */
+    public void recordPlayerPosition(int x, int y) {
+        append(pack(PLAYER_POSITION, x, y, 0));
+    }
+
+    /**
+     * Records the score, health points and basket count the player had before one of them changed.
+     *
+     * @param score       The previous score of the player.
+     * @param hp          The previous health points of the player.
+     * @param basketCount The previous basket count of the player.
+     */
+    public void recordPlayerStats(int score, int hp, int basketCount) {
+        append(pack(PLAYER_STATS, score, basketCount, hp));
+    }
+
+    /**
+     * Records the position a patrol had before it moved.
+     *
+     * @param i The index of the patrol.
+     * @param x The previous x-coordinate of the patrol.
+     * @param y The previous y-coordinate of the patrol.
+     */
+    public void recordPatrolPosition(int i, int x, int y) {
+        append(pack(PATROL_POSITION, x, y, i));
+    }
+
+    /**
+     * Records the direction a patrol had before it turned around.
+     *
+     * @param i         The index of the patrol.
+     * @param direction The previous direction of the patrol.
+     */
+    public void recordPatrolDirection(int i, int direction) {
+        append(pack(PATROL_DIRECTION, direction, 0, i));
+    }
+
+    /**
+     * Closes the current tick. A tick without changes extends the previous tick marker instead of adding one.
+     */
+    public void endTick() {
+        if (!tickChanged && size > 0 && type(entries[last()]) == TICK) {
+            entries[last()]++;
+        } else {
+            append((long) TICK << TYPE_SHIFT | 1);
+        }
+        tickChanged = false;
+        ticks++;
+        while (ticks > horizon) {
+            dropOldestTick();
+        }
+    }
+
+    /**
+     * Retrieves the number of ticks that can currently be rewound.
+     *
+     * @return The number of recorded ticks.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Forgets every recorded change, e.g. because the state was replaced in a way that cannot be rewound.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        ticks = 0;
+        tickChanged = false;
+    }
+
+    /**
+     * Restores the state of the game a number of ticks ago, or as far back as recorded.
+     * The changes of the current, unfinished tick are undone as well.
+     *
+     * @param count   The number of ticks to rewind.
+     * @param board   The board to restore.
+     * @param player  The player to restore.
+     * @param patrols The patrols to restore.
+     * @return The number of ticks rewound.
+     */
+    public int rewind(int count, Board board, Player player, PatrolStore patrols) {
+        int rewound = 0;
+        while (size > 0) {
+            long entry = entries[last()];
+            if (type(entry) == TICK) {
+                if (rewound == count) {
+                    break;
+                }
+                long tickCount = entry & TICK_COUNT_MASK;
+                long undone = Math.min(tickCount, count - rewound);
+                rewound += (int) undone;
+                ticks -= (int) undone;
+                if (undone < tickCount) {
+                    entries[last()] -= undone;
+                    break;
+                }
+            } else {
+                undo(entry, board, player, patrols);
+            }
+            head = last();
+            size--;
+        }
+
+        tickChanged = false;
+        return rewound;
+    }
+
+    /**
+     * Writes the old value held by a change back into the game state.
+     *
+     * @param entry   The packed change.
+     * @param board   The board to restore.
+     * @param player  The player to restore.
+     * @param patrols The patrols to restore.
+     */
+    private static void undo(long entry, Board board, Player player, PatrolStore patrols) {
+        int a = (int) (entry << 4 >> 44); // Shifting the field to the top and back restores its sign
+        int b = (int) (entry << 24 >> 44);
+        int c = (int) (entry << 44 >> 44);
+        switch (type(entry)) {
+            case BASKET -> board.putBasket(a, b);
+            case PLAYER_POSITION -> player.restorePosition(a, b);
+            case PLAYER_STATS -> player.restoreStats(a, c, b);
+            case PATROL_POSITION -> patrols.restorePosition(c, a, b);
+            case PATROL_DIRECTION -> patrols.restoreDirection(c, (byte) a);
+        }
+    }
+
+    /**
+     * Adds an entry to the ring, growing it if it is full, or dropping the oldest ticks if it cannot grow.
+     *
+     * @param entry The packed entry.
+     */
+    private void append(long entry) {
+        if (size == entries.length && entries.length < limit) {
+            resize((int) Math.min(limit, entries.length * 2L));
+        }
+        while (size == entries.length) {
+            dropOldestTick();
+        }
+        entries[head] = entry;
+        head = (head + 1) % entries.length;
+        size++;
+        tickChanged = true;
+    }
+
+    /**
+     * Drops the entries of the oldest tick, up to and including its tick marker.
+     * Ticks sharing a marker are dropped one at a time.
+     */
+    private void dropOldestTick() {
+        while (size > 0) {
+            int oldest = (head - size + entries.length) % entries.length;
+            long entry = entries[oldest];
+            if (type(entry) == TICK) {
+                ticks--;
+                if ((entry & TICK_COUNT_MASK) > 1) {
+                    entries[oldest]--;
+                } else {
+                    size--;
+                }
+                return;
+            }
+            size--;
+        }
+    }
+
+    /**
+     * Retrieves the index of the most recent entry.
+     *
+     * @return The index of the last written entry.
+     */
+    private int last() {
+        return (head - 1 + entries.length) % entries.length;
+    }
+
+    /**
+     * Packs a change into a long: its type in the top bits and three signed 20-bit fields below.
+     *
+     * @param type The type of the change.
+     * @param a    The first field.
+     * @param b    The second field.
+     * @param c    The third field.
+     * @return The packed change.
+     */
+    private static long pack(int type, long a, long b, long c) {
+        return (long) type << TYPE_SHIFT | (a & MASK_20) << 40 | (b & MASK_20) << 20 | (c & MASK_20);
+    }
+
+    /**
+     * Retrieves the type of a packed entry.
+     *
+     * @param entry The packed entry.
+     * @return The type of the entry.
+     */
+    private static int type(long entry) {
+        return (int) (entry >>> TYPE_SHIFT);
+    }
+}
@@ -0,0 +1,224 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The Terrain class holds the static layer of a map: its trees, mountains and the gate Yogi starts at,
+ * along with the tiles the baskets and rangers start on. A Terrain is never changed once it is built,
+ * so every game on the same map shares a single copy; each game keeps its own Board on top of it
+ * for the baskets that are left.
+ */
+public final class Terrain {
+    private final int rows, cols;
+    private final byte[] cells; // 't', 'm' or 0 for every tile, row by row
+    private final int startX, startY;
+    private final long[] baskets; // Bit set of the tiles holding a basket at the start
+    private final int[] patrols; // Tile index times two, plus one for vertical patrols
+
+    /**
+     * Constructs a Terrain from already extracted layers.
+     */
+    private Terrain(int rows, int cols, byte[] cells, int startX, int startY, long[] baskets, int[] patrols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = cells;
+        this.startX = startX;
+        this.startY = startY;
+        this.baskets = baskets;
+        this.patrols = patrols;
+    }
+
+    /**
+     * Creates a Terrain from the codes of a map.
+     * Trees and mountains become terrain, the 'y' code becomes the gate,
+     * and the 'b', 'v' and 'h' codes become the starting tiles of the baskets and rangers.
+     *
+     * @param map The map representing the game grid.
+     * @return The Terrain of the map.
+     */
+    public static Terrain fromMap(int[][] map) {
+        int rows = map.length, cols = map[0].length;
+        byte[] cells = new byte[rows * cols];
+        long[] baskets = new long[(rows * cols + 63) / 64];
+        int[] patrols = new int[16];
+        int patrolCount = 0;
+        int startX = -1, startY = -1;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int cell = i * cols + j;
+                switch (map[i][j]) {
+                    case 't', 'm' -> cells[cell] = (byte) map[i][j];
+                    case 'b' -> baskets[cell >> 6] |= 1L << cell;
+                    case 'v', 'h' -> {
+                        if (patrolCount == patrols.length) {
+                            patrols = Arrays.copyOf(patrols, patrolCount * 2);
+                        }
+                        patrols[patrolCount++] = cell * 2 + (map[i][j] == 'v' ? 1 : 0);
+                    }
+                    case 'y' -> {
+                        if (startX < 0) {
+                            startX = i;
+                            startY = j;
+                        }
+                    }
+                }
+            }
+        }
+        return new Terrain(rows, cols, cells, startX, startY, baskets,
+                Arrays.copyOf(patrols, patrolCount));
+    }
+
+    /**
+     * Retrieves the number of rows of the terrain.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns of the terrain.
+     *
+     * @return The number of columns.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Retrieves the terrain on a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return 't' for a tree, 'm' for a mountain, or 0 for open ground.
+     */
+    public int getElement(int x, int y) {
+        return cells[x * cols + y];
+    }
+
+    /**
+     * Checks whether a tile is blocked by a tree or a mountain.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return True if nobody can walk on the tile, otherwise False.
+     */
+    public boolean isBlocked(int x, int y) {
+        return cells[x * cols + y] != 0;
+    }
+
+    /**
+     * Retrieves the x-coordinate of the gate Yogi starts at.
+     *
+     * @return The x-coordinate of the gate, or -1 if the map has no starting position.
+     */
+    public int getStartX() {
+        return startX;
+    }
+
+    /**
+     * Retrieves the y-coordinate of the gate Yogi starts at.
+     *
+     * @return The y-coordinate of the gate, or -1 if the map has no starting position.
+     */
+    public int getStartY() {
+        return startY;
+    }
+
+    /**
+     * Creates a copy of the baskets at the start of a game, as a bit set with one bit per tile.
+     *
+     * @return The bit set of the starting baskets.
+     */
+    public long[] copyBaskets() {
+        return baskets.clone();
+    }
+
+    /**
+     * Retrieves the number of rangers at the start of a game.
+     *
+     * @return The number of rangers.
+     */
+    public int getPatrolCount() {
+        return patrols.length;
+    }
+
+    /**
+     * Retrieves the starting x-coordinate of a ranger.
+     *
+     * @param k The index of the ranger.
+     * @return The x-coordinate of the ranger.
+     */
+    public int getPatrolX(int k) {
+        return patrols[k] / 2 / cols;
+    }
+
+    /**
+     * Retrieves the starting y-coordinate of a ranger.
+     *
+     * @param k The index of the ranger.
+     * @return The y-coordinate of the ranger.
+     */
+    public int getPatrolY(int k) {
+        return patrols[k] / 2 % cols;
+    }
+
+    /**
+     * Checks whether a ranger patrols vertically or horizontally.
+     *
+     * @param k The index of the ranger.
+     * @return True if the ranger patrols vertically, otherwise False.
+     */
+    public boolean isPatrolVertical(int k) {
+        return (patrols[k] & 1) != 0;
+    }
+
+    /**
+     * Writes the terrain into a buffer.
+     *
+     * @param buffer The buffer to write to.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(rows).putInt(cols).put(cells).putInt(startX).putInt(startY);
+        for (long word : baskets) {
+            buffer.putLong(word);
+        }
+        buffer.putInt(patrols.length);
+        for (int patrol : patrols) {
+            buffer.putInt(patrol);
+        }
+    }
+
+    /**
+     * Reads a terrain written by the write method from a buffer.
+     *
+     * @param buffer The buffer to read from.
+     * @return The Terrain read from the buffer.
+     */
+    public static Terrain read(ByteBuffer buffer) {
+        int rows = buffer.getInt(), cols = buffer.getInt();
+        byte[] cells = new byte[rows * cols];
+        buffer.get(cells);
+        int startX = buffer.getInt(), startY = buffer.getInt();
+        long[] baskets = new long[(rows * cols + 63) / 64];
+        for (int k = 0; k < baskets.length; k++) {
+            baskets[k] = buffer.getLong();
+        }
+        int[] patrols = new int[buffer.getInt()];
+        for (int k = 0; k < patrols.length; k++) {
+            patrols[k] = buffer.getInt();
+        }
+        return new Terrain(rows, cols, cells, startX, startY, baskets, patrols);
+    }
+
+    /**
+     * Retrieves the number of bytes the write method writes.
+     *
+     * @return The size of the written terrain in bytes.
+     */
+    public int getStateSize() {
+        return 5 * Integer.BYTES + cells.length + baskets.length * Long.BYTES + patrols.length * Integer.BYTES;
+    }
+}
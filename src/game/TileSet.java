@@ -0,0 +1,110 @@
+package game;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The TileSet class holds the images used to draw the tiles of the game board.
+ * Scaled copies of the images are created once per tile size and shared afterwards.
+ */
+public class TileSet {
+    private static TileSet instance;
+    private final BufferedImage emptyImage, mountainImage, treeImage, yogiImage, patrolImage, basketImage, gateImage;
+    private final ConcurrentHashMap<Integer, TileSet> scaledTiles = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a TileSet from already loaded images.
+     */
+    private TileSet(BufferedImage emptyImage, BufferedImage mountainImage, BufferedImage treeImage,
+                    BufferedImage yogiImage, BufferedImage patrolImage, BufferedImage basketImage,
+                    BufferedImage gateImage) {
+        this.emptyImage = emptyImage;
+        this.mountainImage = mountainImage;
+        this.treeImage = treeImage;
+        this.yogiImage = yogiImage;
+        this.patrolImage = patrolImage;
+        this.basketImage = basketImage;
+        this.gateImage = gateImage;
+    }
+
+    /**
+     * Retrieves the shared TileSet, loading the images from the assets folder on first use.
+     *
+     * @return The shared TileSet.
+     * @throws IOException If an I/O exception occurs while loading the images.
+     */
+    public static synchronized TileSet getInstance() throws IOException {
+        if (instance == null) {
+            instance = new TileSet(
+                    ImageIO.read(new File("assets/empty.png")),
+                    ImageIO.read(new File("assets/mountain.png")),
+                    ImageIO.read(new File("assets/tree.png")),
+                    ImageIO.read(new File("assets/yogi.png")),
+                    ImageIO.read(new File("assets/patrol.png")),
+                    ImageIO.read(new File("assets/basket.png")),
+                    ImageIO.read(new File("assets/gate.png")));
+        }
+        return instance;
+    }
+
+    /**
+     * Retrieves the image of a map element, scaled to the given tile size.
+     *
+     * @param element  The map element to draw.
+     * @param tileSize The tile size in pixels.
+     * @return The image of the element at the given size.
+     */
+    public BufferedImage getTile(int element, int tileSize) {
+        return scaledTiles.computeIfAbsent(tileSize, this::scaled).getImage(element);
+    }
+
+    /**
+     * Retrieves the original image of a map element.
+     *
+     * @param element The map element to draw.
+     * @return The image of the element.
+     */
+    private BufferedImage getImage(int element) {
+        return switch (element) {
+            case 't' -> treeImage;
+            case 'm' -> mountainImage;
+            case 'y' -> yogiImage;
+            case 'b' -> basketImage;
+            case 'v', 'h' -> patrolImage;
+            case 'g' -> gateImage;
+            default -> emptyImage;
+        };
+    }
+
+    /**
+     * Creates a copy of this TileSet with every image scaled to the given tile size.
+     *
+     * @param tileSize The tile size in pixels.
+     * @return The scaled TileSet.
+     */
+    private TileSet scaled(int tileSize) {
+        return new TileSet(scale(emptyImage, tileSize), scale(mountainImage, tileSize), scale(treeImage, tileSize),
+                scale(yogiImage, tileSize), scale(patrolImage, tileSize), scale(basketImage, tileSize),
+                scale(gateImage, tileSize));
+    }
+
+    /**
+     * Scales a single image to a square of the given size.
+     *
+     * @param image    The image to scale.
+     * @param tileSize The tile size in pixels.
+     * @return The scaled image.
+     */
+    private static BufferedImage scale(BufferedImage image, int tileSize) {
+        BufferedImage scaled = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, tileSize, tileSize, null);
+        g.dispose();
+        return scaled;
+    }
+}
@@ -1,9 +1,19 @@
 package game;
 
 import highscore.HighScoreWindow;
+import telemetry.ColumnarFileSink;
+import telemetry.JdbcTelemetrySink;
+import telemetry.Telemetry;
+import telemetry.TelemetryEvent;
+import telemetry.TelemetrySink;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
 
 /**
@@ -11,17 +21,37 @@ import java.sql.SQLException;
  * It manages the game window, timers, menu bar, and game panel.
  */
 public class YogiGame extends JFrame {
+    private static final int CHECKPOINT_INTERVAL = 2000;
     private YogiGamePanel panel;
     private Timer gameTimer;
+    private long startTime;
+    private final Checkpoint checkpoint = new Checkpoint();
+    private final LatencyStats inputToStateLatency = new LatencyStats(1024);
+    private final LatencyStats inputToDisplayLatency = new LatencyStats(1024);
+    private final LatencyStats frameTimes = new LatencyStats(1024);
+    private boolean activeRendering;
     private final JLabel infoLabel;
+    private boolean chaseMode;
+    private boolean endlessMode;
+    private Telemetry telemetry;
+    private long levelStartTime;
 
     /**
      * Constructs the YogiGame frame with the game components.
+     * If a checkpoint of an unfinished game was saved, that game is resumed.
      */
     public YogiGame() {
         setTitle("Yogi Game");
 
-        this.panel = new YogiGamePanel(this);
+        initTelemetry();
+        long startTime = System.currentTimeMillis();
+        ByteBuffer saved = Checkpoint.load();
+        long elapsed = saved != null ? saved.getLong() : 0;
+        this.panel = new YogiGamePanel(this, saved);
+        if (panel.isResumed()) {
+            startTime -= elapsed;
+        }
+        endlessMode = panel.isEndless(); // A resumed game keeps the mode it was played in
 
         JPanel infoPanel = new JPanel(new FlowLayout());
         infoPanel.setBackground(new Color(239, 155, 179));
@@ -30,9 +60,11 @@ public class YogiGame extends JFrame {
         infoLabel = new JLabel();
         infoPanel.add(infoLabel);
 
-        long startTime = System.currentTimeMillis();
+        levelStartTime = System.currentTimeMillis();
+        telemetry.startGame();
         initTimer(startTime, infoLabel);
         gameTimer.start();
+        initCheckpoints();
 
         infoPanel.add(new JSeparator());
 
@@ -43,7 +75,7 @@ public class YogiGame extends JFrame {
 
         pack();
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setResizable(false);
+        setResizable(true);
         setLocationRelativeTo(null);
         setVisible(true);
     }
@@ -61,6 +93,117 @@ public class YogiGame extends JFrame {
         return infoLabel;
     }
 
+    /**
+     * Retrieves the latency between a key press and its effect on the game state.
+     *
+     * @return The input-to-state latency statistics.
+     */
+    public LatencyStats getInputToStateLatency() {
+        return inputToStateLatency;
+    }
+
+    /**
+     * Retrieves the latency between a key press and the first frame painted after its effect.
+     *
+     * @return The input-to-display latency statistics.
+     */
+    public LatencyStats getInputToDisplayLatency() {
+        return inputToDisplayLatency;
+    }
+
+    /**
+     * Retrieves the time between frames drawn by the active renderer while something is moving.
+     *
+     * @return The frame pacing statistics.
+     */
+    public LatencyStats getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * Retrieves the checkpoint the running game is saved to.
+     *
+     * @return The checkpoint of the game.
+     */
+    public Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Saves a checkpoint of the running game at fixed intervals and when the window is closed.
+     * The checkpoint saved when the window is closed waits for the one being written, instead of being skipped.
+     * Games that are over are not saved.
+     */
+    private void initCheckpoints() {
+        new Timer(CHECKPOINT_INTERVAL, e -> saveCheckpoint()).start();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (panel.getPlayer().getHP() > 0) {
+                    checkpoint.saveFinal(panel, System.currentTimeMillis() - startTime);
+                }
+                checkpoint.close();
+            }
+        });
+    }
+
+    /**
+     * Saves a checkpoint of the running game, unless it is over.
+     */
+    private void saveCheckpoint() {
+        if (panel.getPlayer().getHP() > 0) {
+            checkpoint.save(panel, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Retrieves the telemetry pipeline gameplay events are recorded to.
+     *
+     * @return The telemetry of the game.
+     */
+    public Telemetry getTelemetry() {
+        return telemetry;
+    }
+
+    /**
+     * Initializes the telemetry pipeline, writing to the database if it is available
+     * and to local files otherwise, or once the database fails. The remaining events are written when the application exits.
+     */
+    private void initTelemetry() {
+        File folder = new File("telemetry");
+        TelemetrySink sink;
+        try {
+            sink = new JdbcTelemetrySink();
+        } catch (SQLException e) {
+            try {
+                sink = new ColumnarFileSink(folder);
+            } catch (IOException ex) {
+                System.err.println(ex.getMessage());
+                sink = batch -> { };
+            }
+        }
+        telemetry = new Telemetry(sink, folder);
+        Runtime.getRuntime().addShutdownHook(new Thread(telemetry::close));
+    }
+
+    /**
+     * Checks whether the rangers chase Yogi instead of patrolling.
+     *
+     * @return True if the game is in chase mode, otherwise False.
+     */
+    public boolean isChaseMode() {
+        return chaseMode;
+    }
+
+    /**
+     * Checks whether new games are played in the endless park instead of on a fixed board.
+     *
+     * @return True if the game is in endless mode, otherwise False.
+     */
+    public boolean isEndlessMode() {
+        return endlessMode;
+    }
+
     /**
      * Initializes the game timer to update the game status and display.
      *
@@ -68,6 +211,7 @@ public class YogiGame extends JFrame {
      * @param infoLabel  The label to display game information.
      */
     private void initTimer(long startTime, JLabel infoLabel) {
+        this.startTime = startTime;
         gameTimer = new Timer(10, e -> {
             long elapsedTimeSeconds = (System.currentTimeMillis() - startTime) / 1000;
             String timerDisplay = String.format("Score: %d    Time: %d seconds    Health: %d",
@@ -76,7 +220,7 @@ public class YogiGame extends JFrame {
                     panel.getPlayer().getHP());
             infoLabel.setText(timerDisplay);
 
-            if (panel.getPlayer().getBasketCount() == 0) {
+            if (!panel.isEndless() && panel.getPlayer().getBasketCount() == 0) {
                 startNewGame(true);
             }
 
@@ -99,16 +243,37 @@ public class YogiGame extends JFrame {
         newGame.addActionListener(e -> startNewGame(false));
 
         JMenuItem highScoresMenu = new JMenuItem("High Scores");
-        highScoresMenu.addActionListener(e -> {
-            try {
-                new HighScoreWindow(panel.getHighScores());
-            } catch (SQLException ex) {
-                System.err.println(ex.getMessage());
-            }
+        highScoresMenu.addActionListener(e -> new HighScoreWindow(panel.getHighScores()));
+
+        JMenuItem latencyMenu = new JMenuItem("Performance");
+        latencyMenu.addActionListener(e -> JOptionPane.showMessageDialog(this,
+                "Input to state: " + inputToStateLatency.summarize()
+                        + "\nInput to display: " + inputToDisplayLatency.summarize()
+                        + "\nFrame time: " + frameTimes.summarize()
+                        + "\nDropped key presses: " + panel.getDroppedKeyPresses(),
+                "Performance", JOptionPane.INFORMATION_MESSAGE));
+
+        JCheckBoxMenuItem activeRenderingMenu = new JCheckBoxMenuItem("Active rendering");
+        activeRenderingMenu.addActionListener(e -> {
+            activeRendering = activeRenderingMenu.isSelected();
+            panel.setActiveRendering(activeRendering);
+        });
+
+        JCheckBoxMenuItem chaseMenu = new JCheckBoxMenuItem("Chasing rangers");
+        chaseMenu.addActionListener(e -> chaseMode = chaseMenu.isSelected());
+
+        JCheckBoxMenuItem endlessMenu = new JCheckBoxMenuItem("Endless park", endlessMode);
+        endlessMenu.addActionListener(e -> {
+            endlessMode = endlessMenu.isSelected();
+            startNewGame(false);
         });
 
         gameMenu.add(newGame);
         gameMenu.add(highScoresMenu);
+        gameMenu.add(chaseMenu);
+        gameMenu.add(endlessMenu);
+        gameMenu.add(activeRenderingMenu);
+        gameMenu.add(latencyMenu);
 
         gameMenu.addSeparator();
 
@@ -126,23 +291,30 @@ public class YogiGame extends JFrame {
         this.panel.stopTimers();
         remove(this.panel);
 
+        long now = System.currentTimeMillis();
+        if (carryOver) {
+            telemetry.record(TelemetryEvent.LEVEL_CLEAR, -1, -1, (int) (now - levelStartTime));
+        } else {
+            telemetry.startGame();
+        }
+        levelStartTime = now;
+
         if (carryOver) {
             Player player = this.panel.getPlayer();
             this.panel = new YogiGamePanel(this);
             add(this.panel);
 
-            this.panel.getPlayer().setScore(player.getScore());
-            this.panel.getPlayer().setHP(player.getHP());
+            this.panel.carryOver(player);
 
             gameTimer.start();
         } else {
             this.panel = new YogiGamePanel(this);
             add(this.panel);
 
-            long startTime = System.currentTimeMillis();
-            initTimer(startTime, infoLabel);
+            initTimer(now, infoLabel);
             gameTimer.start();
         }
+        this.panel.setActiveRendering(activeRendering);
         this.panel.requestFocusInWindow();
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package game;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The YogiGameMap class generates a random map for the Yogi game.
@@ -11,81 +15,159 @@ import java.util.Scanner;
 public class YogiGameMap {
     private static final int ROWS = 15;
     private static final int COLS = 15;
-    private static final int[][] randomMap = new int[ROWS][COLS];
+    private static final ConcurrentHashMap<String, Terrain> terrains = new ConcurrentHashMap<>();
 
     /**
-     * Generates a random map by reading configurations from a text file.
+     * Retrieves the terrain of a random map. Each map file is read once,
+     * and its terrain is shared by every game played on it afterwards.
      *
-     * @return A randomly generated map for the Yogi game.
+     * @return The terrain of a randomly selected map for the Yogi game.
      */
-    public static int[][] getRandomMap() {
+    public static Terrain getRandomTerrain() {
         Random random = new Random();
         int mapNumber = random.nextInt(10) + 1; // Randomly select map between map1.txt to map10.txt
         //mapNumber = 10; // Randomly select map between map1.txt to map10.txt
 
         String fileName = "maps/map" + mapNumber + ".txt";
+        Terrain terrain = terrains.get(fileName);
+        if (terrain != null) {
+            return terrain;
+        }
         try {
-            File file = new File(fileName);
-            Scanner scanner = new Scanner(file);
+            int[][] map = loadMap(new File(fileName));
 
             // Check if the map file format is correct
-            int controlRows = 0;
-
-            // Get the dimensions of the map
-            while (scanner.hasNextLine()) {
-                controlRows++;
-                String[] parts = scanner.nextLine().split(" ");
-                int controlCols = parts.length;
-
-                if (controlCols != 15) {
-                    throw new Exception("Invalid map dimensions.");
-                }
+            if (map.length != ROWS || map[0].length != COLS) {
+                throw new IOException("Invalid map dimensions.");
             }
 
-            if(controlRows != 15) {
-                throw new Exception("Invalid map dimensions.");
-            }
-
-            // Reinitialize the Scanner to read from the start of the file
-            scanner = new Scanner(file);
+            /*
+            printMap(map);
+            System.out.println("Map " + mapNumber + " generated.");
+            System.out.println();
+            */
+            terrain = Terrain.fromMap(map);
+            Terrain shared = terrains.putIfAbsent(fileName, terrain);
+            return shared != null ? shared : terrain;
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return Terrain.fromMap(new int[ROWS][COLS]);
+        }
+    }
 
-            // Read and parse the map file into the generatedMap array
-            int row = 0;
+    /**
+     * Reads a map from a text file into a new array.
+     * The file holds one line per row, with the elements of the row separated by spaces.
+     *
+     * @param file The map file.
+     * @return The map read from the file.
+     * @throws IOException If the file cannot be read or its rows have different lengths.
+     */
+    public static int[][] loadMap(File file) throws IOException {
+        List<int[]> rows = new ArrayList<>();
+        try (Scanner scanner = new Scanner(file)) {
             while (scanner.hasNextLine()) {
-                String[] parts = scanner.nextLine().split(" ");
+                String line = scanner.nextLine().trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                if (!rows.isEmpty() && parts.length != rows.get(0).length) {
+                    throw new IOException("Invalid map dimensions.");
+                }
 
-                for (int col = 0; col < COLS; col++) {
+                int[] row = new int[parts.length];
+                for (int col = 0; col < parts.length; col++) {
                     switch (parts[col]) {
-                        case "t" -> randomMap[row][col] = 't';
-                        case "m" -> randomMap[row][col] = 'm';
-                        case "y" -> randomMap[row][col] = 'y';
-                        case "b" -> randomMap[row][col] = 'b';
-                        case "v" -> randomMap[row][col] = 'v';
-                        case "h" -> randomMap[row][col] = 'h';
-                        default -> randomMap[row][col] = 0;
+                        case "t" -> row[col] = 't';
+                        case "m" -> row[col] = 'm';
+                        case "y" -> row[col] = 'y';
+                        case "b" -> row[col] = 'b';
+                        case "v" -> row[col] = 'v';
+                        case "h" -> row[col] = 'h';
+                        default -> row[col] = 0;
                     }
                 }
-                row++;
+                rows.add(row);
             }
-            scanner.close();
+        }
 
-        } catch (Exception e) {
-            System.err.println(e.getMessage());
+        if (rows.isEmpty()) {
+            throw new IOException("Invalid map dimensions.");
+        }
+        return rows.toArray(new int[0][]);
+    }
+
+    /**
+     * Generates a map from a seed, with Yogi starting in the middle of it.
+     * The same seed and size always generate the same map.
+     *
+     * @param seed The seed of the generator.
+     * @param rows The number of rows on the map.
+     * @param cols The number of columns on the map.
+     * @return The generated map.
+     */
+    public static int[][] generateMap(long seed, int rows, int cols) {
+        int[][] map = generateChunk(seed, rows, cols);
+        placeStart(map, rows / 2, cols / 2);
+        return map;
+    }
+
+    /**
+     * Generates a piece of park from a seed, with trees, mountains, baskets and patrols but without Yogi.
+     * The same seed and size always generate the same piece.
+     *
+     * @param seed The seed of the generator.
+     * @param rows The number of rows to generate.
+     * @param cols The number of columns to generate.
+     * @return The generated piece of park.
+     */
+    public static int[][] generateChunk(long seed, int rows, int cols) {
+        Random random = new Random(seed);
+        int[][] map = new int[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int roll = random.nextInt(100);
+                if (roll < 12) {
+                    map[i][j] = 't';
+                } else if (roll < 18) {
+                    map[i][j] = 'm';
+                } else if (roll < 21) {
+                    map[i][j] = 'b';
+                } else if (roll < 22) {
+                    map[i][j] = 'v';
+                } else if (roll < 23) {
+                    map[i][j] = 'h';
+                }
+            }
         }
+        return map;
+    }
 
-        /*
-        printMap();
-        System.out.println("Map " + mapNumber + " generated.");
-        System.out.println();
-        */
-        return randomMap;
+    /**
+     * Places Yogi's starting position on a map and clears the tiles around it,
+     * so he is not trapped or caught right away.
+     *
+     * @param map    The map representing the game grid.
+     * @param startX The x-coordinate of the starting position.
+     * @param startY The y-coordinate of the starting position.
+     */
+    public static void placeStart(int[][] map, int startX, int startY) {
+        for (int i = Math.max(startX - 1, 0); i <= Math.min(startX + 1, map.length - 1); i++) {
+            for (int j = Math.max(startY - 1, 0); j <= Math.min(startY + 1, map[0].length - 1); j++) {
+                map[i][j] = 0;
+            }
+        }
+        map[startX][startY] = 'y';
     }
 
     /**
-     * Prints the generated map to the console.
+     * Prints a map to the console.
+     *
+     * @param map The map to print.
      */
-    private static void printMap() {
-        for (int[] row : randomMap) {
+    private static void printMap(int[][] map) {
+        for (int[] row : map) {
             for (int cell : row) {
                 System.out.print(cell + " ");
             }
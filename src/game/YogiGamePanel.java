@@ -1,41 +1,68 @@
 package game;
 
 import highscore.HighScores;
+import telemetry.TelemetryEvent;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.Random;
 
 /**
  * The YogiGamePanel class represents the panel where the Yogi game is displayed.
  * It manages the game's visuals, user interactions, and timers for the game elements.
  */
 public class YogiGamePanel extends JPanel {
-    private static final int GRID_SIZE = 15;
-    private static final int TILE_SIZE = 50;
+    private static final int VIEW_TILES = 15;
+    private static final long PATROL_STEP_NANOS = 400_000_000L;
+    private static final long PLAYER_STEP_NANOS = 120_000_000L;
+    private static final int REWIND_HORIZON_TICKS = 6000; // 60 seconds of 10 ms simulation ticks
+    private static final int REWIND_STEP_TICKS = 300;
+    private static final int PATROL_STEP_TICKS = 40; // Patrols step every 400 ms, ticks run every 10 ms
     private final YogiGame yogiGame;
     private HighScores highScores;
-    private int[][] map;
+    private Board board; // Replaced when the endless park shifts
     private Player player;
-    private ArrayList<Patrol> patrols;
-    private BufferedImage emptyImage, mountainImage, treeImage, yogiImage, patrolImage, basketImage, gateImage;
+    private PatrolStore patrols;
+    private EndlessPark park; // Null unless the game is played in the endless park
+    private boolean resumed; // Determines if the game was resumed from a saved state
+    private BoardRenderer boardRenderer;
+    private ActiveRenderer activeRenderer;
+    private long lastPatrolStep, lastPlayerStep; // System.nanoTime of the last steps, for interpolation
+    private final GameSnapshot[] snapshots = {new GameSnapshot(), new GameSnapshot()}; // Taken in turns, for drawing
+    private volatile GameSnapshot snapshot; // The latest of the two snapshots
+    private boolean snapshotStale; // Determines if the game state changed while both snapshots were in use
+    private final Camera camera = new Camera();
+    private FlowField flowField; // Distances to Yogi while the rangers chase him, otherwise null
+    private final InputQueue inputQueue = new InputQueue();
+    private final RewindBuffer rewindBuffer = new RewindBuffer(REWIND_HORIZON_TICKS);
+    private final long[] awaitingDisplay = new long[64]; // Queue times of applied key presses not yet painted
+    private int awaitingDisplayCount;
     private Timer collCheckTimer;
     private Timer frameTimer;
     private final MovementListener movementListener;
 
     /**
-     * Constructs a YogiGamePanel instance associated with a YogiGame.
+     * Constructs a YogiGamePanel instance associated with a YogiGame, on a random map
+     * or in the endless park, depending on the game mode.
      *
      * @param yogiGame The YogiGame instance this panel is associated with.
      */
     public YogiGamePanel(YogiGame yogiGame) {
+        this(yogiGame, null);
+    }
+
+    /**
+     * Constructs a YogiGamePanel instance associated with a YogiGame, resuming a saved game state.
+     *
+     * @param yogiGame The YogiGame instance this panel is associated with.
+     * @param state    The game state written by writeState, or null to start a new game.
+     */
+    public YogiGamePanel(YogiGame yogiGame, ByteBuffer state) {
         this.yogiGame = yogiGame;
 
         try {
@@ -44,34 +71,47 @@ public class YogiGamePanel extends JPanel {
             System.err.println(e.getMessage());
         }
 
-        setLayout(null);
-        setPreferredSize(new Dimension(GRID_SIZE * TILE_SIZE, GRID_SIZE * TILE_SIZE));
+        setLayout(new BorderLayout());
+        setPreferredSize(new Dimension(VIEW_TILES * Camera.getDefaultTileSize(),
+                VIEW_TILES * Camera.getDefaultTileSize()));
         setFocusable(true);
 
         movementListener = new MovementListener();
         addKeyListener(movementListener);
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                refresh(); // The snapshot only holds the patrols around the viewport
+            }
+        });
 
         try {
-            initGame();
+            initGame(state);
         } catch (IOException e) {
             System.err.println(e.getMessage());
         }
 
+        publish();
         initTimers();
     }
 
     /**
      * Handles the player's movement based on keyboard input.
+     * Movement and rewind keys are queued and applied by the next simulation tick, in the order they were pressed.
      */
     private class MovementListener extends KeyAdapter {
         @Override
         public void keyPressed(KeyEvent e) {
             int keyCode = e.getKeyCode();
+            yogiGame.getTelemetry().record(TelemetryEvent.KEY_PRESS, -1, -1, keyCode);
             switch (keyCode) {
-                case KeyEvent.VK_W -> movePlayer(-1, 0);
-                case KeyEvent.VK_S -> movePlayer(1, 0);
-                case KeyEvent.VK_A -> movePlayer(0, -1);
-                case KeyEvent.VK_D -> movePlayer(0, 1);
+                case KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_D, KeyEvent.VK_R -> {
+                    if (!inputQueue.offer(keyCode, System.nanoTime())) {
+                        yogiGame.getTelemetry().record(TelemetryEvent.KEY_DROPPED, -1, -1, keyCode);
+                    }
+                }
+                case KeyEvent.VK_EQUALS, KeyEvent.VK_ADD -> zoom(true);
+                case KeyEvent.VK_MINUS, KeyEvent.VK_SUBTRACT -> zoom(false);
             }
         }
     }
@@ -88,38 +128,122 @@ public class YogiGamePanel extends JPanel {
     }
 
     /**
-     * Initializes the game elements including the map, patrols, player, and images.
+     * Initializes the game elements including the board, patrols, player, and images.
      *
+     * @param state The game state to resume, or null to start a new game.
+     *              A new game is started as well if the state cannot be read.
      * @throws IOException If an I/O exception occurs while loading images or initializing the game.
      */
-    private void initGame() throws IOException {
-        patrols = new ArrayList<>();
-        initMap();
-        initPatrols();
-        initPlayer();
+    private void initGame(ByteBuffer state) throws IOException {
+        if (state != null) {
+            try {
+                readState(state);
+                resumed = true;
+            } catch (RuntimeException e) {
+                System.err.println("Cannot resume the saved game: " + e);
+                park = null;
+            }
+        }
+        if (!resumed) {
+            initBoard();
+            initPatrols();
+            initPlayer();
+        }
+        player.setRewindBuffer(rewindBuffer);
+        patrols.setRewindBuffer(rewindBuffer);
+        rewindBuffer.reserve(patrols.size(), PATROL_STEP_TICKS);
         initImages();
     }
 
     /**
-     * Initializes the game map based on predefined configurations.
+     * Writes the terrain, the baskets, the player, the patrols and the position in the endless park into a buffer.
+     *
+     * @param buffer The buffer to write to, with at least getStateSize bytes remaining.
      */
-    private void initMap() {
-        map = YogiGameMap.getRandomMap();
+    public void writeState(ByteBuffer buffer) {
+        board.getTerrain().write(buffer);
+        board.write(buffer);
+        player.write(buffer);
+        patrols.write(buffer);
+        buffer.put((byte) (park != null ? 1 : 0));
+        if (park != null) {
+            park.write(buffer);
+        }
     }
 
     /**
-     * Initializes the patrols on the map based on the predefined map configuration.
+     * Retrieves the number of bytes writeState writes.
+     *
+     * @return The size of the written game state in bytes.
      */
-    private void initPatrols() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (map[i][j] == 'v' || map[i][j] == 'h') {
-                    patrols.add(new Patrol(i, j, map[i][j] == 'v'));
-                }
-            }
+    public int getStateSize() {
+        return board.getTerrain().getStateSize() + board.getStateSize() + Player.getStateSize() + patrols.getStateSize()
+                + 1 + (park != null ? EndlessPark.getStateSize() : 0);
+    }
+
+    /**
+     * Checks whether the game was resumed from a saved state rather than started anew.
+     *
+     * @return True if the game was resumed, otherwise False.
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * Restores the board, the player, the patrols and the endless park written by writeState.
+     *
+     * @param buffer The buffer to read from.
+     */
+    private void readState(ByteBuffer buffer) {
+        board = Board.read(buffer, Terrain.read(buffer));
+        player = Player.read(buffer);
+        patrols = PatrolStore.read(buffer, board.getRows(), board.getCols());
+        if (buffer.get() != 0) {
+            park = EndlessPark.read(buffer);
+        }
+    }
+
+    /**
+     * Initializes the game board on the shared terrain of a predefined map, or on the endless park in endless mode.
+     */
+    private void initBoard() {
+        if (yogiGame.isEndlessMode()) {
+            park = new EndlessPark(new Random().nextLong());
+            board = park.createBoard();
+        } else {
+            board = new Board(YogiGameMap.getRandomTerrain());
         }
     }
 
+    /**
+     * Checks whether the game is played in the endless park, where there is no last basket to pick up.
+     *
+     * @return True if the game is played in the endless park, otherwise False.
+     */
+    public boolean isEndless() {
+        return park != null;
+    }
+
+    /**
+     * Continues with the score and health points of the player of the previous level.
+     * The level starts with them, so rewinding cannot go back to the defaults of a new player.
+     *
+     * @param previous The player of the previous level.
+     */
+    public void carryOver(Player previous) {
+        player.setScore(previous.getScore());
+        player.setHP(previous.getHP());
+        rewindBuffer.clear();
+    }
+
+    /**
+     * Initializes the patrols on the board based on the predefined map configuration.
+     */
+    private void initPatrols() {
+        patrols = PatrolStore.fromTerrain(board.getTerrain());
+    }
+
     /**
      * Retrieves the Player object associated with the game panel.
      *
@@ -130,25 +254,10 @@ public class YogiGamePanel extends JPanel {
     }
 
     /**
-     * Initializes the player's position and basket count based on the game map.
+     * Initializes the player's position and basket count based on the game board.
      */
     private void initPlayer() {
-        for (int i = 0; i < map.length; i++) {
-            for (int j = 0; j < map[0].length; j++) {
-                if (map[i][j] == 'y') {
-                    this.player = new Player(i, j);
-                    break;
-                }
-            }
-        }
-
-        for (int[] row : map) {
-            for (int j = 0; j < map[0].length; j++) {
-                if (row[j] == 'b') {
-                    this.player.setBasketCount(this.player.getBasketCount() + 1);
-                }
-            }
-        }
+        this.player = Player.fromBoard(board);
     }
 
     /**
@@ -157,53 +266,240 @@ public class YogiGamePanel extends JPanel {
      * @throws IOException If an I/O exception occurs while loading the images.
      */
     private void initImages() throws IOException {
-        emptyImage = ImageIO.read(new File("assets/empty.png"));
-        mountainImage = ImageIO.read(new File("assets/mountain.png"));
-        treeImage = ImageIO.read(new File("assets/tree.png"));
-        yogiImage = ImageIO.read(new File("assets/yogi.png"));
-        patrolImage = ImageIO.read(new File("assets/patrol.png"));
-        basketImage = ImageIO.read(new File("assets/basket.png"));
-        gateImage = ImageIO.read(new File("assets/gate.png"));
+        boardRenderer = new BoardRenderer(TileSet.getInstance());
     }
 
     /**
-     * Paints the game components onto the panel.
+     * Paints the game components onto the panel, unless the game is drawn by the active renderer.
+     * Only the tiles intersecting the viewport of the camera are drawn, with patrols on top of the board.
      *
      * @param g The Graphics object used to paint the components.
      */
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                int element = 0; // Default to empty
-                if (i < map.length && j < map[0].length) {
-                    element = map[i][j];
-                }
+        if (activeRenderer == null) {
+            boardRenderer.draw(g, camera, getWidth(), getHeight(), snapshot, 1, 1);
+            recordDisplayed(System.nanoTime());
+        }
+    }
+
+    /**
+     * Draws a frame of the game for the active renderer from the latest snapshot, with Yogi and the patrols
+     * interpolated between their previous and current tiles. Called on the render thread,
+     * which keeps a camera of its own and only reads the snapshot.
+     *
+     * @param g      The Graphics object to draw with.
+     * @param camera The camera of the render thread, set to the zoom level of the snapshot.
+     * @param width  The width of the viewport in pixels.
+     * @param height The height of the viewport in pixels.
+     * @param now    The System.nanoTime the frame is drawn for.
+     */
+    public void render(Graphics g, Camera camera, int width, int height, long now) {
+        GameSnapshot frame = acquireSnapshot();
+        try {
+            camera.setTileSize(frame.getTileSize());
+            boardRenderer.draw(g, camera, width, height, frame,
+                    getAlpha(frame.getLastPlayerStep(), PLAYER_STEP_NANOS, now),
+                    getAlpha(frame.getLastPatrolStep(), PATROL_STEP_NANOS, now));
+        } finally {
+            frame.release();
+        }
+        recordDisplayed(now);
+    }
+
+    /**
+     * Checks whether Yogi or the patrols are still moving between tiles in the latest snapshot.
+     *
+     * @param now The current System.nanoTime.
+     * @return True if a frame drawn now would differ from the previous one, otherwise False.
+     */
+    public boolean isAnimating(long now) {
+        GameSnapshot frame = acquireSnapshot();
+        try {
+            boolean patrolsMoving = frame.getPatrolCount() > 0
+                    && getAlpha(frame.getLastPatrolStep(), PATROL_STEP_NANOS, now) < 1;
+            return patrolsMoving || getAlpha(frame.getLastPlayerStep(), PLAYER_STEP_NANOS, now) < 1;
+        } finally {
+            frame.release();
+        }
+    }
 
-                BufferedImage imageToDraw = switch (element) {
-                    case 't' -> treeImage;
-                    case 'm' -> mountainImage;
-                    case 'y' -> yogiImage;
-                    case 'b' -> basketImage;
-                    case 'v', 'h' -> patrolImage;
-                    case 'g' -> gateImage;
-                    default -> emptyImage;
-                };
-
-                g.drawImage(imageToDraw, j * TILE_SIZE, i * TILE_SIZE, TILE_SIZE, TILE_SIZE, null);
+    /**
+     * Acquires the latest snapshot for drawing off the event dispatch thread. The snapshot is checked to still be
+     * the latest after it is acquired, so the event dispatch thread never takes a snapshot that is being drawn.
+     *
+     * @return The acquired snapshot, to be released once drawn.
+     */
+    private GameSnapshot acquireSnapshot() {
+        while (true) {
+            GameSnapshot frame = snapshot;
+            frame.acquire();
+            if (frame == snapshot) {
+                return frame;
             }
+            frame.release();
+        }
+    }
+
+    /**
+     * Computes how far a step that started at the given time got.
+     *
+     * @param start    The System.nanoTime the step started at.
+     * @param duration The time a step takes in nanoseconds.
+     * @param now      The current System.nanoTime.
+     * @return The fraction of the step completed, between 0 and 1.
+     */
+    private static double getAlpha(long start, long duration, long now) {
+        return Math.min(1.0, (double) (now - start) / duration);
+    }
+
+    /**
+     * Records the input-to-display latency of the key presses applied since the previous frame.
+     *
+     * @param now The System.nanoTime the frame was drawn at.
+     */
+    private synchronized void recordDisplayed(long now) {
+        for (int k = 0; k < awaitingDisplayCount; k++) {
+            yogiGame.getInputToDisplayLatency().record(now - awaitingDisplay[k]);
+        }
+        awaitingDisplayCount = 0;
+    }
+
+    /**
+     * Switches between drawing the game through Swing's repaints and drawing it with an active renderer.
+     *
+     * @param active True to use the active renderer, false to let Swing paint the panel.
+     */
+    public void setActiveRendering(boolean active) {
+        if (active == (activeRenderer != null)) {
+            return;
+        }
+        if (active) {
+            activeRenderer = new ActiveRenderer(this, yogiGame.getFrameTimes());
+            activeRenderer.addKeyListener(movementListener);
+            add(activeRenderer, BorderLayout.CENTER);
+            activeRenderer.start();
+            revalidate();
+            activeRenderer.requestFocusInWindow();
+        } else {
+            activeRenderer.stop();
+            remove(activeRenderer);
+            activeRenderer = null;
+            revalidate();
+            repaint();
+            requestFocusInWindow();
+        }
+    }
+
+    /**
+     * Brings the changed game state to the screen.
+     */
+    private void refresh() {
+        publish();
+        if (activeRenderer != null) {
+            activeRenderer.wake();
+        } else {
+            repaint();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the game state for drawing into the snapshot that is not the latest, then makes it the latest.
+     * The game state is only changed on the event dispatch thread, so the snapshot is complete, and the active renderer
+     * never sees a half-finished step. If the active renderer is still drawing the older snapshot,
+     * the snapshot is taken again by the next tick.
+     */
+    private void publish() {
+        GameSnapshot next = snapshot == snapshots[0] ? snapshots[1] : snapshots[0];
+        snapshotStale = next.isDrawn();
+        if (snapshotStale) {
+            return;
+        }
+        camera.follow(player.getX(), player.getY(), getWidth(), getHeight(), board.getRows(), board.getCols());
+        next.take(board, player, patrols, camera, lastPlayerStep, lastPatrolStep);
+        snapshot = next;
+    }
+
+    /**
+     * Switches the camera to the next zoom level.
+     *
+     * @param in True to zoom in, false to zoom out.
+     */
+    private void zoom(boolean in) {
+        if (in) {
+            camera.zoomIn();
+        } else {
+            camera.zoomOut();
         }
+        refresh();
     }
 
     /**
-     * Moves all patrols on the map based on their predefined behavior.
+     * Moves all patrols on the board based on their predefined behavior,
+     * or towards Yogi along the shared flow field if the game is in chase mode.
      */
     private void movePatrols() {
-        for (Patrol patrol : patrols) {
-            patrol.move(map);
+        if (yogiGame.isChaseMode()) {
+            if (flowField == null) {
+                flowField = new FlowField();
+            }
+            flowField.update(board, player.getX(), player.getY());
+            patrols.chaseAll(board, flowField);
+        } else {
+            flowField = null;
+            patrols.moveAll(board);
+        }
+        lastPatrolStep = System.nanoTime();
+        refresh();
+    }
+
+    /**
+     * Runs a simulation tick: applies the queued key presses, then checks for collisions with patrols.
+     * The changes made during the tick are closed off in the rewind buffer.
+     */
+    private void tick() {
+        inputQueue.drain(this::applyInput);
+        checkCollision();
+        rewindBuffer.endTick();
+        if (snapshotStale) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rewinds the game by a few seconds, e.g. to retry the move that lost a life.
+     * It is applied by the tick like a move, so moves pressed before it are rewound and moves pressed after it
+     * are applied to the rewound state. A game that is over cannot be rewound.
+     */
+    private void rewind() {
+        if (!collCheckTimer.isRunning()) {
+            return;
+        }
+        rewindBuffer.rewind(REWIND_STEP_TICKS, board, player, patrols);
+        refresh();
+    }
+
+    /**
+     * Applies a queued key press and measures how long it took to reach the game state.
+     *
+     * @param keyCode   The code of the pressed key.
+     * @param timestamp The System.nanoTime at which the key press was queued.
+     */
+    private void applyInput(int keyCode, long timestamp) {
+        switch (keyCode) {
+            case KeyEvent.VK_W -> movePlayer(-1, 0);
+            case KeyEvent.VK_S -> movePlayer(1, 0);
+            case KeyEvent.VK_A -> movePlayer(0, -1);
+            case KeyEvent.VK_D -> movePlayer(0, 1);
+            case KeyEvent.VK_R -> rewind();
+        }
+        yogiGame.getInputToStateLatency().record(System.nanoTime() - timestamp);
+        synchronized (this) {
+            if (awaitingDisplayCount < awaitingDisplay.length) {
+                awaitingDisplay[awaitingDisplayCount++] = timestamp;
+            }
         }
-        repaint();
     }
 
     /**
@@ -213,8 +509,22 @@ public class YogiGamePanel extends JPanel {
      * @param dy The change in y-coordinate for the player's movement.
      */
     private void movePlayer(int dx, int dy) {
-        player.move(dx, dy, map, GRID_SIZE);
-        repaint(); // Repaint the panel to reflect changes
+        int score = player.getScore();
+        player.move(dx, dy, board, patrols);
+        if (park != null) {
+            Board shifted = park.follow(board, player, patrols);
+            if (shifted != null) {
+                board = shifted;
+                rewindBuffer.clear(); // The shifted window cannot be rewound
+                rewindBuffer.reserve(patrols.size(), PATROL_STEP_TICKS);
+            }
+        }
+        lastPlayerStep = System.nanoTime();
+        if (player.getScore() > score) {
+            yogiGame.getTelemetry().record(TelemetryEvent.BASKET_PICKUP, player.getX(), player.getY(),
+                    player.getScore());
+        }
+        refresh(); // Repaint the panel to reflect changes
     }
 
     /**
@@ -222,32 +532,41 @@ public class YogiGamePanel extends JPanel {
      * If a collision occurs, it handles the player's HP reduction and potential game over.
      */
     private void checkCollision() {
-        for (Patrol patrol : patrols) {
-            if ((Math.abs(player.getX() - patrol.getX()) <= 1) && (Math.abs(player.getY() - patrol.getY()) <= 1)) {
-                // Collision detected, reduce player health and reset player position
-                player.setHP(player.getHP() - 1);
-
-                if (player.getHP() == 0) {
-                    collCheckTimer.stop();
-                    frameTimer.stop();
-                    yogiGame.getGameTimer().stop();
-                    yogiGame.getInfoLabel().setText(String.format("Score: %d    Game Over!    Health: %d",
-                            getPlayer().getScore(),
-                            getPlayer().getHP()));
-
-                    try {
-                        saveScore();
-                    } catch (SQLException e) {
-                        System.err.println("Error: " + e.getMessage());
-                    }
-                } else {
-                    player.resetPosition(map);
+        if (patrols.isNear(player.getX(), player.getY())) {
+            // Collision detected, reduce player health and reset player position
+            player.setHP(player.getHP() - 1);
+            yogiGame.getTelemetry().record(TelemetryEvent.DEATH, player.getX(), player.getY(), player.getHP());
+
+            if (player.getHP() == 0) {
+                yogiGame.getCheckpoint().delete();
+                collCheckTimer.stop();
+                frameTimer.stop();
+                yogiGame.getGameTimer().stop();
+                yogiGame.getInfoLabel().setText(String.format("Score: %d    Game Over!    Health: %d",
+                        getPlayer().getScore(),
+                        getPlayer().getHP()));
+
+                try {
+                    saveScore();
+                } catch (SQLException e) {
+                    System.err.println("Error: " + e.getMessage());
                 }
-                break;
+            } else {
+                player.resetPosition(board, patrols);
+                refresh();
             }
         }
     }
 
+    /**
+     * Retrieves the number of key presses dropped because the input queue was full.
+     *
+     * @return The number of dropped key presses.
+     */
+    public long getDroppedKeyPresses() {
+        return inputQueue.getDropped();
+    }
+
     /**
      * Retrieves the HighScores object associated with this game panel.
      *
@@ -272,6 +591,9 @@ public class YogiGamePanel extends JPanel {
             highScores.putHighScore(name, player.getScore());
         }
         removeKeyListener(movementListener);
+        if (activeRenderer != null) {
+            activeRenderer.removeKeyListener(movementListener);
+        }
     }
 
     /**
@@ -281,17 +603,24 @@ public class YogiGamePanel extends JPanel {
         frameTimer = new Timer(400, new FrameListener());
         frameTimer.start();
 
-        collCheckTimer = new Timer(10, e -> checkCollision());
+        collCheckTimer = new Timer(10, e -> tick());
         collCheckTimer.start();
     }
 
     /**
-     * Stops all timers used in the game panel.
+     * Stops all timers used in the game panel, the active renderer if there is one,
+     * and the generation of the endless park.
      */
     public void stopTimers() {
         frameTimer.stop();
         collCheckTimer.stop();
         yogiGame.getGameTimer().stop();
+        if (activeRenderer != null) {
+            activeRenderer.stop();
+        }
+        if (park != null) {
+            park.close();
+        }
     }
 }
 
@@ -5,11 +5,23 @@
  */
 package highscore;
 
+import java.sql.Timestamp;
+
 /**
  * The HighScore class represents a record holding a player's name and score.
  * This record encapsulates the essential data of a high score entry.
+ * The timestamp identifies the entry when paging through the high scores.
  */
-public record HighScore(String name, int score) {
+public record HighScore(String name, int score, Timestamp timestamp) {
+
+    /**
+     * Constructs a HighScore record without a timestamp.
+     * @param name  The name of the player.
+     * @param score The score achieved by the player.
+     */
+    public HighScore(String name, int score) {
+        this(name, score, null);
+    }
 
     /**
      * Provides a string representation of the HighScore record.
@@ -0,0 +1,160 @@
+package highscore;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The HighScoreTableModel class presents the high scores to a JTable without loading all of them.
+ * Only the pages the table asks for are fetched, on a background thread, and the most recently
+ * viewed pages are kept in a bounded cache. All other methods must be called on the event dispatch thread.
+ */
+public class HighScoreTableModel extends AbstractTableModel {
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_CACHED_PAGES = 20;
+    private static final int MAX_CACHED_KEYS = 1024;
+    private final HighScores highScores;
+    private final ExecutorService loader;
+    private final Map<Integer, ArrayList<HighScore>> pages = new LruMap<>(MAX_CACHED_PAGES);
+    private final Map<Integer, HighScore> lastRows = new LruMap<>(MAX_CACHED_KEYS); // Last high score of each page
+    private final HashSet<Integer> pendingPages = new HashSet<>();
+    private int rowCount;
+
+    /**
+     * A LinkedHashMap in access order that drops its least recently used entry when it grows too large.
+     */
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    /**
+     * Constructs a HighScoreTableModel and starts counting the high scores in the background.
+     *
+     * @param highScores The HighScores object containing the high score data.
+     */
+    public HighScoreTableModel(HighScores highScores) {
+        this.highScores = highScores;
+        this.loader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "high-score-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        loader.execute(() -> {
+            try {
+                int count = highScores.countHighScores();
+                SwingUtilities.invokeLater(() -> {
+                    rowCount = count;
+                    fireTableDataChanged();
+                });
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == 0 ? "Name" : "Score";
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? String.class : Integer.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        ArrayList<HighScore> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return column == 0 ? "..." : null;
+        }
+        if (row % PAGE_SIZE >= rows.size()) {
+            return null; // The table shrank since it was counted
+        }
+        HighScore highScore = rows.get(row % PAGE_SIZE);
+        return column == 0 ? highScore.name() : highScore.score();
+    }
+
+    /**
+     * Loads a page in the background, unless it is already being loaded.
+     * The page starts after the last high score of the previous page, which is looked up by rank if it is not known.
+     *
+     * @param page The index of the page.
+     */
+    private void requestPage(int page) {
+        if (!pendingPages.add(page)) {
+            return;
+        }
+        HighScore knownAfter = page == 0 ? null : lastRows.get(page - 1);
+        boolean lookUp = page > 0 && knownAfter == null;
+
+        loader.execute(() -> {
+            try {
+                HighScore after = lookUp ? highScores.getHighScoreAt(page * PAGE_SIZE - 1) : knownAfter;
+                ArrayList<HighScore> rows = lookUp && after == null
+                        ? new ArrayList<>()
+                        : highScores.getHighScorePage(after, PAGE_SIZE);
+                SwingUtilities.invokeLater(() -> pageLoaded(page, rows));
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                SwingUtilities.invokeLater(() -> pendingPages.remove(page));
+            }
+        });
+    }
+
+    /**
+     * Stores a loaded page and refreshes its rows in the table.
+     *
+     * @param page The index of the page.
+     * @param rows The high scores on the page.
+     */
+    private void pageLoaded(int page, ArrayList<HighScore> rows) {
+        pendingPages.remove(page);
+        pages.put(page, rows);
+        if (!rows.isEmpty()) {
+            lastRows.put(page, rows.get(rows.size() - 1));
+        }
+
+        int first = page * PAGE_SIZE;
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    /**
+     * Stops the background thread. Pages that are still loading are discarded.
+     */
+    public void close() {
+        loader.shutdownNow();
+    }
+}
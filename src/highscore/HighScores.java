@@ -13,6 +13,9 @@ public class HighScores {
     int maxScores;
     PreparedStatement insertStatement;
     PreparedStatement deleteStatement;
+    PreparedStatement firstPageStatement;
+    PreparedStatement nextPageStatement;
+    PreparedStatement keyStatement;
     Connection connection;
 
     /**
@@ -23,6 +26,32 @@ public class HighScores {
      */
     public HighScores(int maxScores) throws SQLException {
         this.maxScores = maxScores;
+        connection = connect();
+
+        String insertQuery = "INSERT INTO HIGHSCORES (TIMESTAMP, NAME, SCORE) VALUES (?, ?, ?)";
+        insertStatement = connection.prepareStatement(insertQuery);
+        String deleteQuery = "DELETE FROM HIGHSCORES WHERE SCORE=?";
+        deleteStatement = connection.prepareStatement(deleteQuery);
+
+        String firstPageQuery = "SELECT TIMESTAMP, NAME, SCORE FROM HIGHSCORES "
+                + "ORDER BY SCORE DESC, TIMESTAMP DESC LIMIT ?";
+        firstPageStatement = connection.prepareStatement(firstPageQuery);
+        String nextPageQuery = "SELECT TIMESTAMP, NAME, SCORE FROM HIGHSCORES "
+                + "WHERE SCORE < ? OR (SCORE = ? AND TIMESTAMP < ?) "
+                + "ORDER BY SCORE DESC, TIMESTAMP DESC LIMIT ?";
+        nextPageStatement = connection.prepareStatement(nextPageQuery);
+        String keyQuery = "SELECT TIMESTAMP, NAME, SCORE FROM HIGHSCORES "
+                + "ORDER BY SCORE DESC, TIMESTAMP DESC LIMIT 1 OFFSET ?";
+        keyStatement = connection.prepareStatement(keyQuery);
+    }
+
+    /**
+     * Opens a new connection to the game's database.
+     *
+     * @return The connection to the database.
+     * @throws SQLException If an SQL exception occurs during database connection.
+     */
+    public static Connection connect() throws SQLException {
         Properties connectionProps = new Properties();
         // Add new user -> MySQL workbench (Menu: Server / Users and priviliges)
         //                             Tab: Administrative roles -> Check "DBA" option
@@ -30,12 +59,7 @@ public class HighScores {
         connectionProps.put("password", "admin");
         connectionProps.put("serverTimezone", "UTC");
         String dbURL = "jdbc:mysql://localhost:3306/highscore";
-        connection = DriverManager.getConnection(dbURL, connectionProps);
-
-        String insertQuery = "INSERT INTO HIGHSCORES (TIMESTAMP, NAME, SCORE) VALUES (?, ?, ?)";
-        insertStatement = connection.prepareStatement(insertQuery);
-        String deleteQuery = "DELETE FROM HIGHSCORES WHERE SCORE=?";
-        deleteStatement = connection.prepareStatement(deleteQuery);
+        return DriverManager.getConnection(dbURL, connectionProps);
     }
 
     /**
@@ -44,20 +68,89 @@ public class HighScores {
      * @return An ArrayList of HighScore objects containing the retrieved high scores.
      * @throws SQLException If an SQL exception occurs during the retrieval of high scores.
      */
-    public ArrayList<HighScore> getHighScores() throws SQLException {
+    public synchronized ArrayList<HighScore> getHighScores() throws SQLException {
         String query = "SELECT * FROM HIGHSCORES";
         ArrayList<HighScore> highScores = new ArrayList<>();
-        Statement stmt = connection.createStatement();
-        ResultSet results = stmt.executeQuery(query);
-        while (results.next()) {
-            String name = results.getString("NAME");
-            int score = results.getInt("SCORE");
-            highScores.add(new HighScore(name, score));
+        try (Statement stmt = connection.createStatement(); ResultSet results = stmt.executeQuery(query)) {
+            while (results.next()) {
+                highScores.add(readHighScore(results));
+            }
         }
         sortHighScores(highScores);
         return highScores;
     }
 
+    /**
+     * Counts the high scores in the database.
+     *
+     * @return The number of high scores.
+     * @throws SQLException If an SQL exception occurs during the counting of high scores.
+     */
+    public synchronized int countHighScores() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet results = stmt.executeQuery("SELECT COUNT(*) FROM HIGHSCORES")) {
+            return results.next() ? results.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Retrieves a page of high scores in descending order, starting right after a given high score.
+     * The position is found by its score and timestamp, so the database does not skip the preceding rows.
+     *
+     * @param after    The last high score of the previous page, or null for the first page.
+     * @param pageSize The maximum number of high scores on the page.
+     * @return An ArrayList of HighScore objects containing the page.
+     * @throws SQLException If an SQL exception occurs during the retrieval of high scores.
+     */
+    public synchronized ArrayList<HighScore> getHighScorePage(HighScore after, int pageSize) throws SQLException {
+        PreparedStatement stmt;
+        if (after == null) {
+            stmt = firstPageStatement;
+            stmt.setInt(1, pageSize);
+        } else {
+            stmt = nextPageStatement;
+            stmt.setInt(1, after.score());
+            stmt.setInt(2, after.score());
+            stmt.setTimestamp(3, after.timestamp());
+            stmt.setInt(4, pageSize);
+        }
+
+        ArrayList<HighScore> highScores = new ArrayList<>(pageSize);
+        try (ResultSet results = stmt.executeQuery()) {
+            while (results.next()) {
+                highScores.add(readHighScore(results));
+            }
+        }
+        return highScores;
+    }
+
+    /**
+     * Retrieves the high score at a given rank, used to start paging at an arbitrary position.
+     *
+     * @param rank The zero-based rank of the high score.
+     * @return The high score at the rank, or null if there are fewer high scores.
+     * @throws SQLException If an SQL exception occurs during the retrieval of the high score.
+     */
+    public synchronized HighScore getHighScoreAt(int rank) throws SQLException {
+        keyStatement.setInt(1, rank);
+        try (ResultSet results = keyStatement.executeQuery()) {
+            return results.next() ? readHighScore(results) : null;
+        }
+    }
+
+    /**
+     * Reads the high score the result set is positioned on.
+     *
+     * @param results The result set holding the high score.
+     * @return The HighScore object read from the current row.
+     * @throws SQLException If an SQL exception occurs while reading the row.
+     */
+    private HighScore readHighScore(ResultSet results) throws SQLException {
+        String name = results.getString("NAME");
+        int score = results.getInt("SCORE");
+        return new HighScore(name, score, results.getTimestamp("TIMESTAMP"));
+    }
+
     /**
      * Adds a high score to the database if it qualifies to be among the high scores.
      *
@@ -65,7 +158,7 @@ public class HighScores {
      * @param score The score achieved by the player.
      * @throws SQLException If an SQL exception occurs during the high score insertion process.
      */
-    public void putHighScore(String name, int score) throws SQLException {
+    public synchronized void putHighScore(String name, int score) throws SQLException {
         ArrayList<HighScore> highScores = getHighScores();
         if (highScores.size() < maxScores) {
             insertScore(name, score);
@@ -0,0 +1,60 @@
+package telemetry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * The ColumnarFileSink class writes telemetry events into a local binary file, column by column.
+ * Every batch is stored as a block: the number of events, followed by the timestamps, games, events,
+ * x-coordinates, y-coordinates and values of all events in the block.
+ */
+public class ColumnarFileSink implements TelemetrySink {
+    private final DataOutputStream out;
+
+    /**
+     * Constructs a ColumnarFileSink writing to a new file in the given folder.
+     *
+     * @param folder The folder to create the telemetry file in.
+     * @throws IOException If an I/O exception occurs while creating the file.
+     */
+    public ColumnarFileSink(File folder) throws IOException {
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("Cannot create telemetry folder " + folder);
+        }
+        File file = new File(folder, "telemetry-" + System.currentTimeMillis() + ".bin");
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    @Override
+    public void write(TelemetryBatch batch) throws IOException {
+        int size = batch.size();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(batch.getTimestamp(i));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(batch.getGame(i));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeByte(batch.getEvent(i).ordinal());
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(batch.getX(i));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(batch.getY(i));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(batch.getValue(i));
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
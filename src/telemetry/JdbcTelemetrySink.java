@@ -0,0 +1,50 @@
+package telemetry;
+
+import highscore.HighScores;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * The JdbcTelemetrySink class writes telemetry events into the TELEMETRY table of the game's database.
+ * Each batch is sent as a single JDBC batch in its own transaction.
+ */
+public class JdbcTelemetrySink implements TelemetrySink {
+    private final Connection connection;
+    private final PreparedStatement insertStatement;
+
+    /**
+     * Constructs a JdbcTelemetrySink with its own connection to the database.
+     *
+     * @throws SQLException If an SQL exception occurs during database connection or statement preparation.
+     */
+    public JdbcTelemetrySink() throws SQLException {
+        connection = HighScores.connect();
+        connection.setAutoCommit(false);
+        String insertQuery = "INSERT INTO TELEMETRY (TIMESTAMP, GAME, EVENT, X, Y, VALUE) VALUES (?, ?, ?, ?, ?, ?)";
+        insertStatement = connection.prepareStatement(insertQuery);
+    }
+
+    @Override
+    public void write(TelemetryBatch batch) throws SQLException {
+        for (int i = 0; i < batch.size(); i++) {
+            insertStatement.setTimestamp(1, new Timestamp(batch.getTimestamp(i)));
+            insertStatement.setInt(2, batch.getGame(i));
+            insertStatement.setString(3, batch.getEvent(i).name());
+            insertStatement.setInt(4, batch.getX(i));
+            insertStatement.setInt(5, batch.getY(i));
+            insertStatement.setInt(6, batch.getValue(i));
+            insertStatement.addBatch();
+        }
+        insertStatement.executeBatch();
+        connection.commit();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        insertStatement.close();
+        connection.close();
+    }
+}
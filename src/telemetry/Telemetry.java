@@ -0,0 +1,196 @@
+package telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The Telemetry class buffers gameplay events and hands them to a sink on a background drainer thread.
+ * Events are stored in a lock-free ring buffer of fixed size. Recording never blocks the game loop:
+ * if the sink falls behind and the ring buffer is full, new events are dropped and counted instead.
+ * If the sink fails, the events are written to local column files from then on.
+ */
+public class Telemetry {
+    private static final int CAPACITY = 1 << 14; // Must be a power of two
+    private static final int BATCH_SIZE = 512;
+    private static final long IDLE_NANOS = 50_000_000L;
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+    private final File fallbackFolder;
+    private TelemetrySink sink; // Only used by the drainer thread
+    private final long[] timestamps = new long[CAPACITY];
+    private final int[] games = new int[CAPACITY];
+    private final byte[] events = new byte[CAPACITY];
+    private final int[] xs = new int[CAPACITY], ys = new int[CAPACITY], values = new int[CAPACITY];
+    private final AtomicLongArray published = new AtomicLongArray(CAPACITY); // Sequence + 1 of the event in each slot
+    private final AtomicLong tail = new AtomicLong(); // Sequence of the next event to record
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long head; // Sequence of the next event to drain
+    private volatile boolean running = true;
+    private volatile int game;
+    private final Thread drainer;
+
+    /**
+     * Constructs a Telemetry object and starts its drainer thread.
+     *
+     * @param sink           The sink the recorded events are written to.
+     * @param fallbackFolder The folder to write column files to if the sink fails.
+     */
+    public Telemetry(TelemetrySink sink, File fallbackFolder) {
+        this.sink = sink;
+        this.fallbackFolder = fallbackFolder;
+        drainer = new Thread(this::drain, "telemetry-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Starts a new game. Events recorded afterwards belong to the new game.
+     */
+    public void startGame() {
+        game++;
+        record(TelemetryEvent.GAME_START, -1, -1, 0);
+    }
+
+    /**
+     * Records an event without blocking. The event is dropped if the ring buffer is full.
+     *
+     * @param event The kind of the event.
+     * @param x     The x-coordinate of the event, or -1 if it has no position.
+     * @param y     The y-coordinate of the event, or -1 if it has no position.
+     * @param value The value of the event.
+     * @return True if the event was recorded, false if it was dropped.
+     */
+    public boolean record(TelemetryEvent event, int x, int y, int value) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= CAPACITY) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & (CAPACITY - 1));
+        timestamps[slot] = System.currentTimeMillis();
+        games[slot] = game;
+        events[slot] = (byte) event.ordinal();
+        xs[slot] = x;
+        ys[slot] = y;
+        values[slot] = value;
+        published.set(slot, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Retrieves the number of events dropped because the ring buffer was full.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops the drainer thread after it wrote the remaining events, and closes the sink.
+     * Waits for a limited time only, so a hanging sink cannot keep the application from exiting.
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Moves events from the ring buffer to the sink in batches until the pipeline is closed.
+     */
+    private void drain() {
+        TelemetryBatch batch = new TelemetryBatch(BATCH_SIZE);
+        boolean fallenBack = false;
+        while (true) {
+            boolean stopping = !running;
+            fill(batch);
+            while (batch.size > 0 && sink != null) {
+                try {
+                    sink.write(batch);
+                    break;
+                } catch (IOException | SQLException e) {
+                    // Keep draining so the game never stalls: retry the batch on the file sink, or give up
+                    System.err.println("Telemetry sink failed: " + e.getMessage());
+                    closeSink();
+                    sink = fallenBack ? null : openFallback();
+                    fallenBack = true;
+                }
+            }
+            if (batch.size == BATCH_SIZE) {
+                continue;
+            }
+            if (stopping) {
+                break;
+            }
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+
+        closeSink();
+    }
+
+    /**
+     * Opens a file sink in the fallback folder.
+     *
+     * @return The file sink, or null if it cannot be created.
+     */
+    private TelemetrySink openFallback() {
+        try {
+            return new ColumnarFileSink(fallbackFolder);
+        } catch (IOException e) {
+            System.err.println("Telemetry disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Closes the current sink, if there is one.
+     */
+    private void closeSink() {
+        if (sink == null) {
+            return;
+        }
+        try {
+            sink.close();
+        } catch (IOException | SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Copies the published events from the ring buffer into a batch and frees their slots.
+     *
+     * @param batch The batch to fill.
+     */
+    private void fill(TelemetryBatch batch) {
+        long sequence = head;
+        int size = 0;
+        while (size < BATCH_SIZE) {
+            int slot = (int) (sequence & (CAPACITY - 1));
+            if (published.get(slot) != sequence + 1) {
+                break;
+            }
+            batch.timestamps[size] = timestamps[slot];
+            batch.games[size] = games[slot];
+            batch.events[size] = events[slot];
+            batch.xs[size] = xs[slot];
+            batch.ys[size] = ys[slot];
+            batch.values[size] = values[slot];
+            size++;
+            sequence++;
+        }
+        batch.size = size;
+        head = sequence;
+    }
+}
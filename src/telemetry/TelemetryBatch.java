@@ -0,0 +1,97 @@
+package telemetry;
+
+/**
+ * The TelemetryBatch class holds a batch of telemetry events in parallel primitive arrays.
+ * Batches are reused by the drainer, so sinks must not keep a reference to them after writing.
+ */
+public class TelemetryBatch {
+    private static final TelemetryEvent[] EVENTS = TelemetryEvent.values();
+    final long[] timestamps;
+    final int[] games;
+    final byte[] events;
+    final int[] xs, ys, values;
+    int size;
+
+    /**
+     * Constructs an empty batch with room for the given number of events.
+     *
+     * @param capacity The maximum number of events in the batch.
+     */
+    TelemetryBatch(int capacity) {
+        timestamps = new long[capacity];
+        games = new int[capacity];
+        events = new byte[capacity];
+        xs = new int[capacity];
+        ys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Retrieves the number of events in the batch.
+     *
+     * @return The number of events.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the time an event occurred at.
+     *
+     * @param i The index of the event.
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getTimestamp(int i) {
+        return timestamps[i];
+    }
+
+    /**
+     * Retrieves the game an event belongs to.
+     *
+     * @param i The index of the event.
+     * @return The identifier of the game.
+     */
+    public int getGame(int i) {
+        return games[i];
+    }
+
+    /**
+     * Retrieves the kind of an event.
+     *
+     * @param i The index of the event.
+     * @return The kind of the event.
+     */
+    public TelemetryEvent getEvent(int i) {
+        return EVENTS[events[i]];
+    }
+
+    /**
+     * Retrieves the x-coordinate of an event.
+     *
+     * @param i The index of the event.
+     * @return The x-coordinate, or -1 if the event has no position.
+     */
+    public int getX(int i) {
+        return xs[i];
+    }
+
+    /**
+     * Retrieves the y-coordinate of an event.
+     *
+     * @param i The index of the event.
+     * @return The y-coordinate, or -1 if the event has no position.
+     */
+    public int getY(int i) {
+        return ys[i];
+    }
+
+    /**
+     * Retrieves the value of an event, whose meaning depends on the kind of the event.
+     *
+     * @param i The index of the event.
+     * @return The value of the event.
+     */
+    public int getValue(int i) {
+        return values[i];
+    }
+}
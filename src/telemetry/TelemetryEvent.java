@@ -0,0 +1,31 @@
+package telemetry;
+
+/**
+ * The TelemetryEvent enum lists the kinds of gameplay events recorded by the telemetry pipeline.
+ */
+public enum TelemetryEvent {
+    /**
+     * A new game started. The value is unused.
+     */
+    GAME_START,
+    /**
+     * Yogi picked up a basket at the given position. The value holds the new score.
+     */
+    BASKET_PICKUP,
+    /**
+     * Yogi was caught by a ranger at the given position. The value holds the remaining health.
+     */
+    DEATH,
+    /**
+     * All baskets of a level were collected. The value holds the time it took in milliseconds.
+     */
+    LEVEL_CLEAR,
+    /**
+     * A key was pressed. The value holds the key code; the input rate follows from the timestamps.
+     */
+    KEY_PRESS,
+    /**
+     * A key press was dropped because the input queue was full. The value holds the key code.
+     */
+    KEY_DROPPED
+}
@@ -0,0 +1,28 @@
+package telemetry;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * The TelemetrySink interface is implemented by the destinations telemetry batches are written to.
+ * Sinks are only called from the drainer thread.
+ */
+public interface TelemetrySink {
+    /**
+     * Writes a batch of events.
+     *
+     * @param batch The batch to write.
+     * @throws IOException  If an I/O exception occurs while writing to a file.
+     * @throws SQLException If an SQL exception occurs while writing to the database.
+     */
+    void write(TelemetryBatch batch) throws IOException, SQLException;
+
+    /**
+     * Releases the resources held by the sink. Sinks without resources do not need to override it.
+     *
+     * @throws IOException  If an I/O exception occurs while closing a file.
+     * @throws SQLException If an SQL exception occurs while closing the database connection.
+     */
+    default void close() throws IOException, SQLException {
+    }
+}